@@ -0,0 +1,92 @@
+package org.finder.Benchmarks;
+
+import org.finder.FileReaders.TokenEmitter;
+import org.finder.Tree.AVLTree;
+import org.finder.Tree.TokenBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción del índice: inserta en un árbol vacío los bloques de palabras de varios documentos, ya leídos y
+ * normalizados, igual que la etapa de escritura del indexador. Mide solo {@link AVLTree#insert(String, TokenBatch)},
+ * sin la lectura de los archivos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexBenchmark {
+    @Param({"20"})
+    public int documents;
+
+    @Param({"50000"})
+    public int wordsPerDocument;
+
+    private List<List<TokenBatch>> batches;
+
+    @Setup
+    public void setup() {
+        batches = tokenize(new ZipfCorpus(), documents, wordsPerDocument);
+    }
+
+    /**
+     * Lee con un {@link TokenEmitter} las líneas generadas de cada documento y guarda sus bloques.
+     *
+     * @return Los bloques de cada documento, en orden.
+     */
+    static List<List<TokenBatch>> tokenize(ZipfCorpus corpus, int documents, int wordsPerDocument) {
+        List<List<TokenBatch>> batches = new ArrayList<>(documents);
+        for (int d = 0; d < documents; d++) {
+            List<TokenBatch> document = new ArrayList<>();
+            TokenEmitter tokens = new TokenEmitter(document::add);
+            int line = 0;
+            for (String text : corpus.lines(wordsPerDocument, 12)) {
+                tokens.emitLine(text, ++line, 0);
+            }
+            tokens.flush();
+            batches.add(document);
+        }
+        return batches;
+    }
+
+    /**
+     * Nombre del documento {@code d} en el árbol.
+     */
+    static String documentName(int d) {
+        return "/corpus/documento" + d + ".txt";
+    }
+
+    /**
+     * Inserta todos los documentos en un árbol nuevo.
+     */
+    static AVLTree build(List<List<TokenBatch>> batches) {
+        AVLTree tree = new AVLTree();
+        for (int d = 0; d < batches.size(); d++) {
+            String name = documentName(d);
+            for (TokenBatch batch : batches.get(d)) {
+                tree.insert(name, batch);
+            }
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public AVLTree insert() {
+        return build(batches);
+    }
+}
@@ -0,0 +1,64 @@
+package org.finder.Benchmarks;
+
+import org.finder.Tree.Normalizer;
+import org.finder.UnicodeHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalización de palabras del texto sintético, con mayúsculas, acentos y puntuación. Los resultados son por
+ * palabra. {@link #legacyQueryPath} es el camino que usaba la búsqueda antes de {@link Normalizer}
+ * (quitar acentos, pasar a minúsculas y quitar la puntuación con una expresión regular), como referencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NormalizeBenchmark {
+    private static final int WORDS = 100_000;
+
+    private String[] words;
+
+    @Setup
+    public void setup() {
+        words = String.join(" ", new ZipfCorpus().lines(WORDS, 12)).split(" ");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORDS)
+    public void normalizeWord(Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(Normalizer.normalizeWord(word));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORDS)
+    public void removeAccents(Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(UnicodeHelper.removeAccents(word));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORDS)
+    public void legacyQueryPath(Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(UnicodeHelper.removeAccents(word).toLowerCase().replaceAll("\\p{Punct}", ""));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.finder.Benchmarks;
+
+import org.finder.FileReaders.DocumentReader;
+import org.finder.FileReaders.DocumentReaders;
+import org.finder.FileReaders.TokenEmitter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de un documento generado con el corpus sintético con el lector de su formato, hasta entregar todos
+ * sus bloques de palabras normalizadas. Cada operación lee el mismo documento de {@code wordsPerDocument} palabras,
+ * así que la cantidad de operaciones por segundo multiplicada por esa cantidad da las palabras por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReaderBenchmark {
+    @Param({"txt", "docx", "pdf"})
+    public String format;
+
+    @Param({"50000"})
+    public int wordsPerDocument;
+
+    private Path directory;
+    private Path file;
+    private DocumentReader reader;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("textfinder-bench");
+        file = directory.resolve("documento." + format);
+        List<String> lines = new ZipfCorpus().lines(wordsPerDocument, 12);
+        switch (format) {
+            case "txt" -> ZipfCorpus.writeText(file, lines);
+            case "docx" -> ZipfCorpus.writeDocx(file, lines);
+            case "pdf" -> ZipfCorpus.writePdf(file, lines, 60);
+            default -> throw new IllegalArgumentException("Formato desconocido: " + format);
+        }
+        reader = DocumentReaders.forFile(file.toFile());
+        if (reader == null) {
+            throw new IllegalStateException("No hay un lector para " + format);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int read(Blackhole blackhole) throws IOException {
+        TokenEmitter tokens = new TokenEmitter(blackhole::consume);
+        reader.read(file, tokens);
+        tokens.flush();
+        return tokens.getCount();
+    }
+}
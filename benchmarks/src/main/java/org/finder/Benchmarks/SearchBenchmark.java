@@ -0,0 +1,59 @@
+package org.finder.Benchmarks;
+
+import org.finder.Tree.AVLTree;
+import org.finder.Tree.Occurrence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsquedas con {@link AVLTree#searchAllOccurrences} sobre un índice del corpus sintético: la palabra más
+ * frecuente, una palabra rara y una frase de dos palabras tomada del texto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"frequent", "rare", "phrase"})
+    public String query;
+
+    @Param({"20"})
+    public int documents;
+
+    @Param({"50000"})
+    public int wordsPerDocument;
+
+    private AVLTree tree;
+    private String input;
+
+    @Setup
+    public void setup() {
+        ZipfCorpus corpus = new ZipfCorpus();
+        tree = IndexBenchmark.build(IndexBenchmark.tokenize(corpus, documents, wordsPerDocument));
+        input = switch (query) {
+            case "frequent" -> corpus.word(0);
+            case "rare" -> corpus.word(ZipfCorpus.VOCABULARY / 10);
+            case "phrase" -> tree.getDocuments().originalWord(0, 100) + " " + tree.getDocuments().originalWord(0, 101);
+            default -> throw new IllegalArgumentException("Consulta desconocida: " + query);
+        };
+    }
+
+    @Benchmark
+    public List<Occurrence> searchAllOccurrences() {
+        return tree.searchAllOccurrences(input);
+    }
+}
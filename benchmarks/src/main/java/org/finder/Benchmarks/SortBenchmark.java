@@ -0,0 +1,113 @@
+package org.finder.Benchmarks;
+
+import org.finder.Results.Result;
+import org.finder.Sorting.ResultOrder;
+import org.finder.Sorting.ResultOrder.Key;
+import org.finder.Sorting.Sorting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cada método de {@link Sorting} y un orden de varias claves con {@link ResultOrder}, sobre resultados con
+ * nombres del corpus sintético, tamaños de hasta 8 GB y fechas repetidas. Cada operación ordena una copia nueva
+ * de la lista; {@link #copyOnly} mide solo la copia, para restarla.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortBenchmark {
+    private static final ResultOrder MULTI_KEY =
+            ResultOrder.by(Key.DATE, false).then(Key.NAME, true).then(Key.POSITION, true);
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<Result> results;
+
+    @Setup
+    public void setup() {
+        ZipfCorpus corpus = new ZipfCorpus();
+        SplittableRandom random = new SplittableRandom(ZipfCorpus.SEED);
+        results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = corpus.nextWord() + ".txt";
+            Result result = new Result(name, "/corpus/" + name, random.nextLong(8L << 30),
+                    FileTime.fromMillis(1_700_000_000_000L + random.nextInt(1000) * 60_000L), "",
+                    1_600_000_000_000L + random.nextInt(1_000_000), "");
+            result.position = 1 + random.nextInt(50_000);
+            results.add(result);
+        }
+    }
+
+    @Benchmark
+    public List<Result> copyOnly() {
+        return new ArrayList<>(results);
+    }
+
+    @Benchmark
+    public List<Result> byDateAscending() {
+        List<Result> copy = new ArrayList<>(results);
+        Sorting.sortByDateAscending(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Result> byDateDescending() {
+        List<Result> copy = new ArrayList<>(results);
+        Sorting.sortByDateDescending(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Result> byNameAscending() {
+        List<Result> copy = new ArrayList<>(results);
+        Sorting.sortByFileNameAscending(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Result> byNameDescending() {
+        List<Result> copy = new ArrayList<>(results);
+        Sorting.sortByFileNameDescending(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Result> bySizeAscending() {
+        List<Result> copy = new ArrayList<>(results);
+        Sorting.sortByFileSizeAscending(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Result> bySizeDescending() {
+        List<Result> copy = new ArrayList<>(results);
+        Sorting.sortByFileSizeDescending(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Result> byDateNamePosition() {
+        List<Result> copy = new ArrayList<>(results);
+        MULTI_KEY.sort(copy);
+        return copy;
+    }
+}
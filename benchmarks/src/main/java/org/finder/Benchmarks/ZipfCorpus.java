@@ -0,0 +1,238 @@
+package org.finder.Benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generador de un corpus sintético reproducible para los benchmarks. El vocabulario son palabras inventadas con
+ * algunas vocales acentuadas y eñes, y las palabras del texto se eligen con una distribución de Zipf: la palabra
+ * de rango {@code r} aparece con probabilidad proporcional a {@code 1 / r^s}, como en los textos reales, así que
+ * hay unas pocas palabras muy frecuentes y muchas raras.
+ *
+ * <p>Con la misma semilla se genera siempre el mismo vocabulario y el mismo texto. Todos los caracteres están en
+ * WinAnsiEncoding, así que el texto también se puede escribir en un PDF con las fuentes estándar.
+ */
+public final class ZipfCorpus {
+    /** Semilla de los benchmarks. */
+    public static final long SEED = 20240501L;
+    /** Tamaño del vocabulario de los benchmarks. */
+    public static final int VOCABULARY = 50_000;
+    /** Exponente de la distribución de los benchmarks. */
+    public static final double EXPONENT = 1.0;
+
+    private static final String[] SYLLABLES = {
+            "ca", "sa", "de", "la", "me", "ro", "ti", "no", "bu", "pe", "go", "ra", "ci", "lo", "fa", "zu",
+            "mon", "tar", "ser", "val", "cor", "pin", "dal", "ven", "qui", "tre", "bla", "gra", "chi", "lla",
+            "ción", "más", "ñu", "é", "í", "ó", "ú", "á", "ña"};
+    private static final String[] PUNCTUATION = {",", ";", ":"};
+
+    private final String[] vocabulary; // Ordenado por rango: la primera es la más frecuente.
+    private final double[] cumulative; // Probabilidad acumulada de cada rango.
+    private final SplittableRandom random;
+
+    /**
+     * Crea un corpus con la configuración de los benchmarks.
+     */
+    public ZipfCorpus() {
+        this(SEED, VOCABULARY, EXPONENT);
+    }
+
+    /**
+     * Crea un corpus.
+     *
+     * @param seed La semilla del vocabulario y del texto.
+     * @param vocabularySize La cantidad de palabras distintas.
+     * @param exponent El exponente {@code s} de la distribución de Zipf.
+     */
+    public ZipfCorpus(long seed, int vocabularySize, double exponent) {
+        this.random = new SplittableRandom(seed);
+        Set<String> words = new LinkedHashSet<>(vocabularySize * 2);
+        StringBuilder word = new StringBuilder();
+        while (words.size() < vocabularySize) {
+            word.setLength(0);
+            int syllables = 1 + random.nextInt(4);
+            for (int i = 0; i < syllables; i++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(word.toString());
+        }
+        this.vocabulary = words.toArray(new String[0]);
+        this.cumulative = new double[vocabularySize];
+        double total = 0;
+        for (int rank = 0; rank < vocabularySize; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < vocabularySize; rank++) {
+            cumulative[rank] /= total;
+        }
+    }
+
+    /**
+     * Devuelve la palabra de un rango del vocabulario.
+     *
+     * @param rank El rango, empezando en 0 para la más frecuente.
+     * @return La palabra.
+     */
+    public String word(int rank) {
+        return vocabulary[rank];
+    }
+
+    /**
+     * Elige la siguiente palabra según la distribución de Zipf.
+     *
+     * @return La palabra.
+     */
+    public String nextWord() {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        return vocabulary[Math.min(vocabulary.length - 1, rank < 0 ? -rank - 1 : rank)];
+    }
+
+    /**
+     * Genera palabras sueltas, sin mayúsculas ni puntuación.
+     *
+     * @param count La cantidad de palabras.
+     * @return Las palabras.
+     */
+    public String[] words(int count) {
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = nextWord();
+        }
+        return words;
+    }
+
+    /**
+     * Genera líneas de texto: oraciones de entre 5 y 20 palabras que empiezan con mayúscula y terminan en punto,
+     * con alguna coma o punto y coma en el medio.
+     *
+     * @param words La cantidad de palabras.
+     * @param wordsPerLine La cantidad de palabras por línea.
+     * @return Las líneas, sin salto de línea al final.
+     */
+    public List<String> lines(int words, int wordsPerLine) {
+        List<String> lines = new ArrayList<>(words / wordsPerLine + 1);
+        StringBuilder line = new StringBuilder();
+        int sentenceLeft = 0;
+        for (int i = 0; i < words; i++) {
+            String word = nextWord();
+            if (sentenceLeft == 0) {
+                sentenceLeft = 5 + random.nextInt(16);
+                word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+            }
+            if (--sentenceLeft == 0) {
+                word += ".";
+            } else if (random.nextInt(12) == 0) {
+                word += PUNCTUATION[random.nextInt(PUNCTUATION.length)];
+            }
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            line.append(word);
+            if ((i + 1) % wordsPerLine == 0) {
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+        }
+        if (line.length() > 0) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Escribe las líneas en un archivo de texto UTF-8.
+     *
+     * @param file El archivo.
+     * @param lines Las líneas.
+     * @throws IOException Si no se puede escribir el archivo.
+     */
+    public static void writeText(Path file, List<String> lines) throws IOException {
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escribe las líneas en un archivo DOCX mínimo, con un párrafo por línea.
+     *
+     * @param file El archivo.
+     * @param lines Las líneas; no deben contener caracteres especiales de XML.
+     * @throws IOException Si no se puede escribir el archivo.
+     */
+    public static void writeDocx(Path file, List<String> lines) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            writeEntry(zip, "[Content_Types].xml", """
+                    <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                    <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+                    <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+                    <Default Extension="xml" ContentType="application/xml"/>
+                    <Override PartName="/word/document.xml" ContentType="application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml"/>
+                    </Types>""");
+            writeEntry(zip, "_rels/.rels", """
+                    <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                    <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                    <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="word/document.xml"/>
+                    </Relationships>""");
+            StringBuilder body = new StringBuilder("""
+                    <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                    <w:document xmlns:w="http://schemas.openxmlformats.org/wordprocessingml/2006/main"><w:body>""");
+            for (String line : lines) {
+                body.append("<w:p><w:r><w:t xml:space=\"preserve\">").append(line).append("</w:t></w:r></w:p>");
+            }
+            body.append("</w:body></w:document>");
+            writeEntry(zip, "word/document.xml", body.toString());
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /**
+     * Escribe las líneas en un archivo PDF con Helvetica de 9 puntos.
+     *
+     * @param file El archivo.
+     * @param lines Las líneas.
+     * @param linesPerPage La cantidad de líneas por página.
+     * @throws IOException Si no se puede escribir el archivo.
+     */
+    public static void writePdf(Path file, List<String> lines, int linesPerPage) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (int first = 0; first < lines.size(); first += linesPerPage) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 9);
+                    content.setLeading(11);
+                    content.newLineAtOffset(30, 760);
+                    for (String line : lines.subList(first, Math.min(lines.size(), first + linesPerPage))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                document.save(out);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.finder.FileReaders;
+
+import org.finder.Tree.AVLTree;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Lector de un tipo de documento. Solo extrae el texto y emite sus palabras con su línea y posición en la línea;
+ * la normalización, el agrupado en bloques y la inserción en el árbol quedan a cargo de {@link TokenEmitter}
+ * y del indexador.
+ *
+ * <p>Los lectores se descubren con {@link java.util.ServiceLoader} (ver {@link DocumentReaders}): para agregar un
+ * formato basta con implementar esta interfaz con un constructor público sin parámetros y listar la clase en
+ * {@code META-INF/services/org.finder.FileReaders.DocumentReader}. Se crea una sola instancia de cada lector, que
+ * se usa desde varios hilos a la vez, así que no debe guardar estado de un documento.
+ */
+public interface DocumentReader {
+
+    /**
+     * Devuelve las extensiones de archivo que lee, sin punto (por ejemplo {@code "txt"}).
+     *
+     * @return Las extensiones.
+     */
+    String[] extensions();
+
+    /**
+     * Lee un documento y emite sus palabras en orden.
+     *
+     * @param file El archivo a leer.
+     * @param tokens Recibe las palabras.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    void read(Path file, TokenEmitter tokens) throws IOException;
+
+    /**
+     * Extrae el texto de un documento tal como lo muestra el visor, el mismo sobre el que se calculan los
+     * desplazamientos que emite {@link #read}: los saltos de línea como {@code \n} y una entrada por página
+     * (una sola si el documento no tiene páginas).
+     *
+     * @param file El archivo a leer.
+     * @return El texto de cada página.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    String[] extractPages(Path file) throws IOException;
+
+    /**
+     * Extrae el texto de un rango de páginas, con el mismo formato que {@link #extractPages(Path)}.
+     * Los lectores de documentos con páginas lo reemplazan para no extraer el documento completo.
+     *
+     * @param file El archivo a leer.
+     * @param first La primera página, empezando en 1.
+     * @param last La última página, incluida.
+     * @return El texto de cada página del rango que existe en el documento.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    default String[] extractPages(Path file, int first, int last) throws IOException {
+        String[] pages = extractPages(file);
+        return Arrays.copyOfRange(pages, Math.min(Math.max(0, first - 1), pages.length), Math.min(last, pages.length));
+    }
+
+    /**
+     * Devuelve la cantidad de páginas del documento.
+     *
+     * @param file El archivo a leer.
+     * @return La cantidad de páginas; 1 si el documento no tiene páginas.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    default int pageCount(Path file) throws IOException {
+        return 1;
+    }
+
+    /**
+     * Lee un documento e inserta sus palabras directamente en un árbol, en el hilo que llama.
+     *
+     * @param filePath La ruta del archivo, que también es el nombre del documento en el árbol.
+     * @param tree El árbol AVL donde se insertarán las palabras.
+     * @throws IOException Si no se puede leer el archivo; las palabras ya leídas quedan insertadas.
+     */
+    default void readInto(String filePath, AVLTree tree) throws IOException {
+        TokenEmitter tokens = new TokenEmitter(batch -> tree.insert(filePath, batch));
+        try {
+            read(Path.of(filePath), tokens);
+        } finally {
+            tokens.flush();
+        }
+    }
+}
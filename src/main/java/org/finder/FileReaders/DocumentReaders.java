@@ -0,0 +1,106 @@
+package org.finder.FileReaders;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Registro de los lectores de documentos disponibles, descubiertos con {@link ServiceLoader} al cargar la clase.
+ * Decide qué lector corresponde a cada archivo según su extensión.
+ */
+public final class DocumentReaders {
+    private static final List<DocumentReader> READERS = load();
+
+    private DocumentReaders() {
+    }
+
+    private static List<DocumentReader> load() {
+        List<DocumentReader> readers = new ArrayList<>();
+        for (DocumentReader reader : ServiceLoader.load(DocumentReader.class)) {
+            readers.add(reader);
+        }
+        return List.copyOf(readers);
+    }
+
+    /**
+     * Devuelve todos los lectores disponibles.
+     *
+     * @return Los lectores, en el orden en que se declararon.
+     */
+    public static List<DocumentReader> all() {
+        return READERS;
+    }
+
+    /**
+     * Devuelve el lector de un archivo según su extensión.
+     *
+     * @param name El nombre o la ruta del archivo.
+     * @return El primer lector que acepta la extensión, o null si ninguno la acepta.
+     */
+    public static DocumentReader forName(String name) {
+        for (DocumentReader reader : READERS) {
+            for (String extension : reader.extensions()) {
+                if (name.endsWith("." + extension)) {
+                    return reader;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Devuelve el lector de un archivo según su extensión.
+     *
+     * @param file El archivo.
+     * @return El lector, o null si ninguno acepta la extensión.
+     */
+    public static DocumentReader forFile(File file) {
+        return forName(file.getName());
+    }
+
+    /**
+     * Indica si hay un lector para la extensión del archivo.
+     *
+     * @param name El nombre del archivo.
+     * @return true si algún lector acepta la extensión.
+     */
+    public static boolean isSupported(String name) {
+        return forName(name) != null;
+    }
+
+    /**
+     * Obtiene todos los archivos de un directorio que algún lector puede leer, incluyendo los archivos en
+     * subdirectorios.
+     *
+     * @param dir El directorio raíz.
+     * @return Los archivos encontrados.
+     */
+    public static List<File> supportedFiles(File dir) {
+        List<File> fileList = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile() && isSupported(file.getName())) {
+                    fileList.add(file);
+                } else if (file.isDirectory()) {
+                    fileList.addAll(supportedFiles(file)); // Recursivamente añadir archivos de subdirectorios.
+                }
+            }
+        }
+        return fileList;
+    }
+
+    /**
+     * Devuelve las extensiones de todos los lectores, por ejemplo para filtrar el selector de archivos.
+     *
+     * @return Las extensiones, sin punto.
+     */
+    public static String[] extensions() {
+        List<String> extensions = new ArrayList<>();
+        for (DocumentReader reader : READERS) {
+            extensions.addAll(List.of(reader.extensions()));
+        }
+        return extensions.toArray(new String[0]);
+    }
+}
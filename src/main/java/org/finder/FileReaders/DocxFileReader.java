@@ -1,29 +1,30 @@
 package org.finder.FileReaders;
 
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.finder.Tree.AVLTree;
-import org.finder.Tree.Normalizer;
-import org.finder.Tree.Occurrence;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.List;
+import java.nio.file.Path;
 
 /**
  * Clase para leer archivos DOCX y extraer palabras para su inserción en un árbol AVL.
- * Esta clase utiliza la biblioteca Apache POI para procesar archivos DOCX.
+ * Los párrafos se leen en streaming con {@link DocxTextExtractor}, sin cargar el documento completo en memoria.
  * Extrae todas las palabras de cada párrafo del documento y las inserta en el árbol AVL,
  * manteniendo un conteo de su posición para facilitar búsquedas y referencias futuras.
  * Adicionalmente, mantiene un registro de la línea y posición en la línea para cada palabra,
  * lo que facilita referencias más precisas dentro del documento.
  */
-public class DocxFileReader {
+public class DocxFileReader implements DocumentReader {
     private static final Logger logger = LogManager.getLogger(DocxFileReader.class);
     private AVLTree avlTree; // Árbol AVL donde se insertarán las palabras.
 
+    /**
+     * Construye un lector sin árbol asociado, para usarlo como {@link DocumentReader}.
+     */
+    public DocxFileReader() {
+    }
+
     /**
      * Constructor que inicializa el DocxFileReader con un árbol AVL específico.
      *
@@ -33,6 +34,40 @@ public class DocxFileReader {
         this.avlTree = avlTree;
     }
 
+    @Override
+    public String[] extensions() {
+        return new String[]{"docx"};
+    }
+
+    /**
+     * Lee un archivo DOCX y emite las palabras de cada párrafo a medida que se leen; cada párrafo cuenta como una línea.
+     *
+     * @param file El archivo DOCX.
+     * @param tokens Recibe las palabras.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    @Override
+    public void read(Path file, TokenEmitter tokens) throws IOException {
+        int[] lineCount = {0}; // Contador de líneas.
+        int[] lineOffset = {0}; // Desplazamiento del párrafo en el texto, con un salto de línea después de cada uno.
+        DocxTextExtractor.readParagraphs(file, paragraph -> {
+            tokens.emitLine(paragraph, ++lineCount[0], lineOffset[0]);
+            lineOffset[0] += paragraph.length() + 1;
+        });
+    }
+
+    /**
+     * Extrae el texto del documento con un párrafo por línea.
+     *
+     * @param file El archivo DOCX.
+     * @return Un arreglo con el texto del documento como única página.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    @Override
+    public String[] extractPages(Path file) throws IOException {
+        return new String[]{DocxTextExtractor.readText(file)};
+    }
+
     /**
      * Lee un archivo DOCX desde una ruta de archivo especificada y extrae palabras de cada párrafo.
      * Las palabras extraídas se insertan en el árbol AVL junto con su posición en el texto.
@@ -40,34 +75,8 @@ public class DocxFileReader {
      * @param filePath la ruta del sistema de archivos hacia el archivo DOCX que se va a procesar.
      */
     public void readFileAndInsertWords(String filePath) {
-        try (FileInputStream fis = new FileInputStream(filePath);
-             XWPFDocument document = new XWPFDocument(fis)) {
-            List<XWPFParagraph> paragraphs = document.getParagraphs();
-            int lineCount = 0; // Contador de líneas.
-            int wordCount = 0; // Contador acumulativo de palabras para mantener la posición secuencial.
-            Occurrence previous = null;
-
-            for (XWPFParagraph paragraph : paragraphs) {
-                lineCount++;
-                String[] words = paragraph.getText().split("\\s+");
-                int lineWordCount = 0; // Contador de palabras en la línea actual.
-
-                for (String word : words) {
-                    if (!word.isEmpty()) {
-                        lineWordCount++;
-                        String originalWord = word;
-                        word = Normalizer.normalizeWord(word);
-                        Occurrence occurrence = new Occurrence(filePath, originalWord, wordCount + 1, lineCount, lineWordCount);
-                        avlTree.insert(word, occurrence);
-                        wordCount++;
-                        if (previous != null) {
-                            occurrence.setPrevious(previous);
-                            previous.setNext(occurrence);
-                        }
-                        previous = occurrence;
-                    }
-                }
-            }
+        try {
+            readInto(filePath, avlTree);
         } catch (IOException e) {
             logger.error("Error al leer el archivo: " + e.getMessage(), e);
         }
@@ -0,0 +1,191 @@
+package org.finder.FileReaders;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extrae el texto de un archivo DOCX párrafo por párrafo, leyendo la parte principal del documento
+ * ({@code word/document.xml}) directamente del zip con un lector StAX, sin construir el modelo de objetos
+ * de Apache POI. Solo se descomprime esa parte: las imágenes y demás archivos incrustados no se leen,
+ * así que la memoria necesaria no depende de su tamaño.
+ *
+ * <p>El texto de cada párrafo es el mismo que devuelve {@code XWPFParagraph.getText()}: el contenido de los
+ * elementos {@code w:t}, con {@code w:tab} como tabulador y {@code w:br} y {@code w:cr} como salto de línea.
+ * Se incluyen también los párrafos de las tablas y de los cuadros de texto, y se omite el contenido alternativo
+ * ({@code mc:Fallback}) para no repetir el texto de los cuadros de texto.
+ */
+public final class DocxTextExtractor {
+    private static final String MAIN_DOCUMENT = "word/document.xml";
+    private static final String OFFICE_DOCUMENT = "/officeDocument"; // Final del tipo de la relación a la parte principal.
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private DocxTextExtractor() {
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // Sin DTD ni entidades externas.
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    /**
+     * Lee un archivo DOCX y entrega el texto de cada párrafo en el orden del documento, a medida que se lee.
+     *
+     * @param file El archivo DOCX.
+     * @param paragraphs Recibe el texto de cada párrafo.
+     * @throws IOException Si no se puede leer el archivo o no es un DOCX válido.
+     */
+    public static void readParagraphs(Path file, Consumer<String> paragraphs) throws IOException {
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            ZipEntry entry = zip.getEntry(mainDocumentName(zip));
+            if (entry == null) {
+                throw new IOException("El archivo no contiene " + MAIN_DOCUMENT + ": " + file);
+            }
+            try (InputStream in = zip.getInputStream(entry)) {
+                parse(in, paragraphs);
+            }
+        }
+    }
+
+    /**
+     * Devuelve el texto completo de un archivo DOCX, con un párrafo por línea.
+     *
+     * @param file El archivo DOCX.
+     * @return El texto del documento.
+     * @throws IOException Si no se puede leer el archivo o no es un DOCX válido.
+     */
+    public static String readText(Path file) throws IOException {
+        StringBuilder text = new StringBuilder();
+        readParagraphs(file, paragraph -> text.append(paragraph).append('\n'));
+        return text.toString();
+    }
+
+    /**
+     * Busca el nombre de la parte principal del documento en las relaciones del paquete ({@code _rels/.rels}).
+     *
+     * @param zip El archivo DOCX abierto.
+     * @return El nombre de la parte principal, o {@code word/document.xml} si no está declarada.
+     * @throws IOException Si no se pueden leer las relaciones.
+     */
+    private static String mainDocumentName(ZipFile zip) throws IOException {
+        ZipEntry rels = zip.getEntry("_rels/.rels");
+        if (rels == null) {
+            return MAIN_DOCUMENT;
+        }
+        try (InputStream in = zip.getInputStream(rels)) {
+            XMLStreamReader xml = FACTORY.createXMLStreamReader(in);
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(xml.getLocalName())) {
+                        String type = xml.getAttributeValue(null, "Type");
+                        String target = xml.getAttributeValue(null, "Target");
+                        if (type != null && target != null && type.endsWith(OFFICE_DOCUMENT)) {
+                            return target.startsWith("/") ? target.substring(1) : target;
+                        }
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Relaciones del DOCX inválidas: " + e.getMessage(), e);
+        }
+        return MAIN_DOCUMENT;
+    }
+
+    /**
+     * Recorre el XML de la parte principal y entrega el texto de cada párrafo al cerrarse.
+     * Un párrafo dentro de otro (el de un cuadro de texto) se entrega antes que el que lo contiene.
+     */
+    private static void parse(InputStream in, Consumer<String> paragraphs) throws IOException {
+        Deque<StringBuilder> open = new ArrayDeque<>(); // Párrafos abiertos, el más interno primero.
+        int skipped = 0; // Profundidad dentro de un mc:Fallback.
+        boolean inText = false; // Dentro de un w:t.
+        int runs = 0; // Profundidad de w:r abiertos.
+        try {
+            XMLStreamReader xml = FACTORY.createXMLStreamReader(in);
+            try {
+                while (xml.hasNext()) {
+                    switch (xml.next()) {
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            String name = xml.getLocalName();
+                            if (skipped > 0 || "Fallback".equals(name)) {
+                                skipped++;
+                            } else if (isWordElement(xml)) {
+                                switch (name) {
+                                    case "p" -> open.push(new StringBuilder());
+                                    case "r" -> runs++;
+                                    case "t" -> inText = true;
+                                    case "tab" -> appendInRun(open, runs, '\t');
+                                    case "br", "cr" -> appendInRun(open, runs, '\n');
+                                    default -> {
+                                    }
+                                }
+                            }
+                        }
+                        case XMLStreamConstants.END_ELEMENT -> {
+                            if (skipped > 0) {
+                                skipped--;
+                            } else if (isWordElement(xml)) {
+                                switch (xml.getLocalName()) {
+                                    case "p" -> {
+                                        if (!open.isEmpty()) {
+                                            paragraphs.accept(open.pop().toString());
+                                        }
+                                    }
+                                    case "r" -> runs--;
+                                    case "t" -> inText = false;
+                                    default -> {
+                                    }
+                                }
+                            }
+                        }
+                        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA,
+                             XMLStreamConstants.SPACE -> {
+                            if (inText && skipped == 0 && !open.isEmpty()) {
+                                open.peek().append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Documento DOCX inválido: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Agrega un carácter al párrafo abierto si el elemento está dentro de un w:r; fuera de uno
+     * (por ejemplo las tabulaciones de {@code w:pPr/w:tabs}) son definiciones de formato y no texto.
+     */
+    private static void appendInRun(Deque<StringBuilder> open, int runs, char c) {
+        if (runs > 0 && !open.isEmpty()) {
+            open.peek().append(c);
+        }
+    }
+
+    /**
+     * Indica si el elemento actual es del espacio de nombres de WordprocessingML (transicional o estricto).
+     */
+    private static boolean isWordElement(XMLStreamReader xml) {
+        String namespace = xml.getNamespaceURI();
+        return namespace != null && (namespace.endsWith("/wordprocessingml/2006/main")
+                || namespace.endsWith("/ooxml/wordprocessingml/main"));
+    }
+}
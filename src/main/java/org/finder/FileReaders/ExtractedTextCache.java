@@ -0,0 +1,309 @@
+package org.finder.FileReaders;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caché del texto extraído de los documentos para el visor, así abrir otra vez un PDF o un DOCX no vuelve a
+ * extraerlo. Guarda en memoria los textos usados más recientemente hasta {@link #MEMORY_PROPERTY} caracteres y,
+ * si se configura {@link #DIRECTORY_PROPERTY}, también en disco comprimidos, para reutilizarlos entre ejecuciones.
+ *
+ * <p>Cada texto se guarda con el tamaño y la fecha de modificación del archivo; si el archivo cambió, el texto
+ * se vuelve a extraer. El texto es el de {@link DocumentReader#extractPages}, una entrada por página. Las páginas
+ * sueltas que pide el visor de PDF ({@link #getPage}) se guardan aparte, así mostrar una página de un documento
+ * largo solo extrae esa página.
+ */
+public class ExtractedTextCache {
+    private static final Logger logger = LogManager.getLogger(ExtractedTextCache.class);
+
+    /**
+     * Propiedad del sistema con la cantidad máxima de caracteres en memoria
+     * (por ejemplo {@code -Dtextfinder.viewer.cacheChars=8000000}). Un valor de 0 desactiva la caché en memoria.
+     */
+    public static final String MEMORY_PROPERTY = "textfinder.viewer.cacheChars";
+
+    /**
+     * Propiedad del sistema con la carpeta de la caché en disco (por ejemplo
+     * {@code -Dtextfinder.viewer.cacheDir=.textfinder/text}). Si no está definida, no se usa el disco.
+     */
+    public static final String DIRECTORY_PROPERTY = "textfinder.viewer.cacheDir";
+
+    private static final int DISK_MAGIC = 0x54465458; // "TFTX"
+
+    /**
+     * Texto extraído de un archivo, con el tamaño y la fecha de modificación que tenía el archivo.
+     */
+    private static final class Entry {
+        final long length;
+        final long modified;
+        final String[] pages;
+        final long chars;
+
+        Entry(long length, long modified, String[] pages) {
+            this.length = length;
+            this.modified = modified;
+            this.pages = pages;
+            long total = 0;
+            for (String page : pages) {
+                total += page.length();
+            }
+            this.chars = total;
+        }
+
+        boolean matches(File file) {
+            return length == file.length() && modified == file.lastModified();
+        }
+    }
+
+    private final long maxChars;
+    private final Path directory; // null si no hay caché en disco.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // Orden de acceso.
+    private long chars = 0;
+    private long hits = 0;
+    private long diskHits = 0;
+    private long misses = 0;
+
+    /**
+     * Crea una caché.
+     *
+     * @param maxChars La cantidad máxima de caracteres en memoria; 0 la desactiva.
+     * @param directory La carpeta de la caché en disco, o null para no usar el disco.
+     */
+    public ExtractedTextCache(long maxChars, Path directory) {
+        this.maxChars = Math.max(0, maxChars);
+        this.directory = directory;
+    }
+
+    /**
+     * Crea una caché con los límites de {@link #MEMORY_PROPERTY} (16 millones de caracteres si no está definida)
+     * y {@link #DIRECTORY_PROPERTY}.
+     *
+     * @return La caché configurada.
+     */
+    public static ExtractedTextCache configured() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        return new ExtractedTextCache(Long.getLong(MEMORY_PROPERTY, 16_000_000L),
+                directory == null || directory.isBlank() ? null : Path.of(directory));
+    }
+
+    /**
+     * Devuelve el texto de un documento, extrayéndolo solo si no está en la caché o si el archivo cambió.
+     *
+     * @param file El documento.
+     * @return El texto de cada página (una sola entrada si el documento no tiene páginas).
+     * @throws IOException Si no se puede leer el archivo o no hay un lector para su extensión.
+     */
+    public String[] get(File file) throws IOException {
+        return load(file, 0);
+    }
+
+    /**
+     * Devuelve el texto de una sola página de un documento, extrayendo solo esa página si no está en la caché.
+     *
+     * @param file El documento.
+     * @param page El número de página, empezando en 1.
+     * @return El texto de la página, o una cadena vacía si el documento no tiene esa página.
+     * @throws IOException Si no se puede leer el archivo o no hay un lector para su extensión.
+     */
+    public String getPage(File file, int page) throws IOException {
+        String[] pages = load(file, page);
+        return pages.length == 0 ? "" : pages[0];
+    }
+
+    /**
+     * Busca el texto en memoria, luego en disco, y si no está lo extrae.
+     *
+     * @param file El documento.
+     * @param page La página, o 0 para el documento completo.
+     * @return El texto extraído.
+     */
+    private String[] load(File file, int page) throws IOException {
+        String key = key(file.getAbsolutePath(), page);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.matches(file)) {
+                hits++;
+                return entry.pages;
+            }
+        }
+        Entry entry = readFromDisk(key, file);
+        boolean fromDisk = entry != null;
+        if (!fromDisk) {
+            DocumentReader reader = DocumentReaders.forFile(file);
+            if (reader == null) {
+                throw new IOException("No hay un lector para " + file.getName());
+            }
+            long length = file.length();
+            long modified = file.lastModified();
+            String[] pages = page == 0 ? reader.extractPages(file.toPath())
+                    : reader.extractPages(file.toPath(), page, page);
+            entry = new Entry(length, modified, pages);
+            writeToDisk(key, entry);
+        }
+        synchronized (this) {
+            if (fromDisk) {
+                diskHits++;
+            } else {
+                misses++;
+            }
+            put(key, entry);
+        }
+        return entry.pages;
+    }
+
+    /**
+     * Devuelve la clave de un texto: la ruta del documento y, para una página suelta, su número.
+     */
+    private static String key(String path, int page) {
+        return page == 0 ? path : path + "#" + page;
+    }
+
+    /**
+     * Quita el texto de un documento de la caché, por ejemplo cuando se elimina el archivo.
+     *
+     * @param file El documento.
+     */
+    public void remove(File file) {
+        String path = file.getAbsolutePath();
+        List<String> removed = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> entry = iterator.next();
+                if (entry.getKey().equals(path) || entry.getKey().startsWith(path + "#")) {
+                    chars -= entry.getValue().chars;
+                    removed.add(entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+        if (directory != null) {
+            removed.add(path); // El texto completo puede estar en disco aunque ya no esté en memoria.
+            for (String key : removed) {
+                try {
+                    Files.deleteIfExists(diskPath(key));
+                } catch (IOException e) {
+                    logger.warn("No se pudo borrar el texto en caché de " + key + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            chars -= previous.chars;
+        }
+        if (entry.chars > maxChars) {
+            return; // No entra en la caché en memoria.
+        }
+        entries.put(key, entry);
+        chars += entry.chars;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (chars > maxChars && eldest.hasNext()) {
+            chars -= eldest.next().chars;
+            eldest.remove();
+        }
+    }
+
+    private Entry readFromDisk(String key, File file) {
+        if (directory == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                new BufferedInputStream(Files.newInputStream(diskPath(key)))))) {
+            if (in.readInt() != DISK_MAGIC || !key.equals(in.readUTF())) {
+                return null;
+            }
+            long length = in.readLong();
+            long modified = in.readLong();
+            if (length != file.length() || modified != file.lastModified()) {
+                return null;
+            }
+            String[] pages = new String[in.readInt()];
+            for (int i = 0; i < pages.length; i++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                pages[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new Entry(length, modified, pages);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Texto en caché ilegible para " + key + "; se extraerá de nuevo: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path target = diskPath(key);
+            Path temp = Files.createTempFile(directory, "text", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(DISK_MAGIC);
+                out.writeUTF(key);
+                out.writeLong(entry.length);
+                out.writeLong(entry.modified);
+                out.writeInt(entry.pages.length);
+                for (String page : entry.pages) {
+                    byte[] bytes = page.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo guardar en disco el texto de " + key + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve el archivo de la caché en disco de un texto, nombrado por el resumen SHA-256 de su clave.
+     */
+    private Path diskPath(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + ".txt.gz");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ExtractedTextCache{documentos=" + entries.size() + ", caracteres=" + chars + "/" + maxChars
+                + ", aciertos=" + hits + ", aciertosDisco=" + diskHits + ", fallos=" + misses + "}";
+    }
+}
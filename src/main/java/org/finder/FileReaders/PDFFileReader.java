@@ -1,10 +1,18 @@
 package org.finder.FileReaders;
 
 import org.finder.Tree.AVLTree;
-import org.finder.Tree.Normalizer;
-import org.finder.Tree.Occurrence;
-import java.io.IOException;
 import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.logging.log4j.LogManager;
@@ -17,15 +25,304 @@ import org.apache.logging.log4j.Logger;
  * Utiliza un enfoque secuencial y acumulativo para mantener un conteo correcto de las posiciones de las palabras.
  * Además, esta clase es capaz de manejar textos distribuidos a lo largo de múltiples páginas,
  * conservando la precisión en la ubicación de las palabras tanto en el documento como en la estructura de líneas.
+ *
+ * <p>Los PDF largos se dividen en tramos de {@link #PAGES_PER_RANGE_PROPERTY} páginas que se extraen a la vez,
+ * cada uno con su propio {@link PDDocument} porque PDFBox no admite usar un documento desde varios hilos.
+ * El texto de los tramos se emite en orden, así las posiciones siguen siendo continuas entre páginas y cada
+ * palabra queda con su número de página.
+ *
+ * <p>Los tramos de todos los PDF se extraen en un único grupo de hilos compartido, de {@link #WORKERS_PROPERTY}
+ * menos uno, así que leer varios PDF a la vez (por ejemplo desde {@code ParallelIndexer}) no multiplica los hilos
+ * ni los documentos abiertos. El hilo que lee un PDF extrae él mismo los tramos que el grupo todavía no empezó.
  */
-public class PDFFileReader {
+public class PDFFileReader implements DocumentReader {
     private static final Logger logger = LogManager.getLogger(PDFFileReader.class);
+    /**
+     * Propiedad del sistema con la cantidad de páginas de cada tramo que se extrae en paralelo
+     * (por ejemplo {@code -Dtextfinder.pdf.pagesPerRange=32}). Los PDF que no superan un tramo se leen en serie.
+     */
+    public static final String PAGES_PER_RANGE_PROPERTY = "textfinder.pdf.pagesPerRange";
+
+    /**
+     * Propiedad del sistema con la cantidad máxima de hilos que extraen tramos de PDF, contando el hilo que lee cada
+     * PDF (por ejemplo {@code -Dtextfinder.pdf.workers=4}). Un valor de 1 lee todas las páginas en serie.
+     */
+    public static final String WORKERS_PROPERTY = "textfinder.pdf.workers";
+
+    private static ExecutorService rangePool; // Grupo compartido de hilos que extraen tramos; se crea al primer uso.
+
     private AVLTree avlTree; // Referencia al árbol AVL donde se insertarán las palabras.
 
+    /**
+     * Construye un lector sin árbol asociado, para usarlo como {@link DocumentReader}.
+     */
+    public PDFFileReader() {
+    }
+
     public PDFFileReader(AVLTree avlTree) {
         this.avlTree = avlTree;
     }
 
+    @Override
+    public String[] extensions() {
+        return new String[]{"pdf"};
+    }
+
+    /**
+     * Devuelve la cantidad de páginas por tramo configurada mediante {@link #PAGES_PER_RANGE_PROPERTY},
+     * o 64 si la propiedad no está definida.
+     *
+     * @return La cantidad de páginas de cada tramo.
+     */
+    public static int configuredPagesPerRange() {
+        return Math.max(1, Integer.getInteger(PAGES_PER_RANGE_PROPERTY, 64));
+    }
+
+    /**
+     * Devuelve la cantidad de hilos de extracción configurada mediante {@link #WORKERS_PROPERTY},
+     * o la cantidad de procesadores disponibles si la propiedad no está definida.
+     *
+     * @return La cantidad máxima de hilos que extraen tramos de PDF.
+     */
+    public static int configuredWorkers() {
+        return Math.max(1, Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Extrae el texto de un archivo PDF y emite sus palabras página por página.
+     * Las líneas se numeran desde 1 en cada página; la posición en el documento es acumulativa.
+     *
+     * @param file El archivo PDF.
+     * @param tokens Recibe las palabras.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    @Override
+    public void read(Path file, TokenEmitter tokens) throws IOException {
+        extractRanges(file, (texts, firstPage) -> emitPages(texts, firstPage, tokens));
+    }
+
+    /**
+     * Extrae el texto de todas las páginas del PDF, con los tramos en paralelo igual que al indexar.
+     *
+     * @param file El archivo PDF.
+     * @return El texto de cada página.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    @Override
+    public String[] extractPages(Path file) throws IOException {
+        List<String> pages = new ArrayList<>();
+        extractRanges(file, (texts, firstPage) -> pages.addAll(List.of(texts)));
+        return pages.toArray(new String[0]);
+    }
+
+    /**
+     * Extrae solo el texto de las páginas pedidas, por ejemplo para mostrar una página en el visor.
+     *
+     * @param file El archivo PDF.
+     * @param first La primera página, empezando en 1.
+     * @param last La última página, incluida.
+     * @return El texto de cada página del rango que existe en el documento.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    @Override
+    public String[] extractPages(Path file, int first, int last) throws IOException {
+        try (PDDocument document = PDDocument.load(file.toFile())) {
+            return stripPages(document, Math.max(1, first), Math.min(last, document.getNumberOfPages()));
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de páginas del PDF, sin extraer su texto.
+     *
+     * @param file El archivo PDF.
+     * @return La cantidad de páginas.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    @Override
+    public int pageCount(Path file) throws IOException {
+        try (PDDocument document = PDDocument.load(file.toFile())) {
+            return document.getNumberOfPages();
+        }
+    }
+
+    /**
+     * Recibe el texto de un tramo de páginas consecutivas.
+     */
+    @FunctionalInterface
+    private interface RangeConsumer {
+        void accept(String[] texts, int firstPage);
+    }
+
+    /**
+     * Devuelve el grupo compartido de hilos que extraen tramos, creándolo la primera vez.
+     *
+     * @return El grupo, o null si {@link #configuredWorkers()} es 1 y todo se lee en serie.
+     */
+    private static synchronized ExecutorService rangePool() {
+        int threads = configuredWorkers() - 1; // El hilo que lee cada PDF también extrae tramos.
+        if (rangePool == null && threads > 0) {
+            AtomicInteger count = new AtomicInteger();
+            rangePool = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "pdf-range-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return rangePool;
+    }
+
+    /**
+     * Tramo de páginas que extrae el primero que lo toma: un hilo del grupo compartido o el hilo que lee el PDF.
+     */
+    private static final class Range {
+        private final File file;
+        private final int start;
+        private final int end;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<String[]> texts = new CompletableFuture<>();
+
+        Range(File file, int start, int end) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Extrae el tramo si nadie lo tomó todavía.
+         */
+        void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                texts.complete(extractRange(file, start, end));
+            } catch (Throwable e) {
+                texts.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Devuelve el texto del tramo: lo extrae en este hilo si el grupo no lo empezó, o espera a que termine.
+         */
+        String[] get() throws InterruptedException, ExecutionException {
+            run();
+            return texts.get();
+        }
+
+        /**
+         * Evita que el grupo extraiga el tramo si todavía no lo empezó.
+         */
+        void cancel() {
+            claimed.set(true);
+        }
+    }
+
+    /**
+     * Extrae el texto del PDF por tramos y entrega los tramos en orden. Si el PDF tiene más de un tramo,
+     * los tramos siguientes al primero se encargan al grupo compartido mientras este hilo extrae el primero.
+     *
+     * @param file El archivo PDF.
+     * @param ranges Recibe el texto de cada tramo, en orden de páginas.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    private static void extractRanges(Path file, RangeConsumer ranges) throws IOException {
+        try (PDDocument document = PDDocument.load(file.toFile())) {
+            int pages = document.getNumberOfPages();
+            int pagesPerRange = configuredPagesPerRange();
+            ExecutorService pool = pages > pagesPerRange ? rangePool() : null;
+            if (pool == null) {
+                ranges.accept(stripPages(document, 1, pages), 1);
+                return;
+            }
+            List<Range> rest = new ArrayList<>(pages / pagesPerRange);
+            try {
+                for (int first = pagesPerRange + 1; first <= pages; first += pagesPerRange) {
+                    Range range = new Range(file.toFile(), first, Math.min(pages, first + pagesPerRange - 1));
+                    rest.add(range);
+                    pool.execute(range::run);
+                }
+                ranges.accept(stripPages(document, 1, pagesPerRange), 1);
+                for (int r = 0; r < rest.size(); r++) {
+                    ranges.accept(rest.get(r).get(), (r + 1) * pagesPerRange + 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Lectura del PDF interrumpida");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException cause) {
+                    throw cause;
+                }
+                throw new IOException("Error al extraer páginas del PDF: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                for (Range range : rest) {
+                    range.cancel(); // Si la lectura se interrumpió, el grupo no extrae los tramos pendientes.
+                }
+            }
+        }
+    }
+
+    /**
+     * Abre el PDF de nuevo y extrae el texto de un tramo de páginas, con su propio documento.
+     *
+     * @param file El archivo PDF.
+     * @param start La primera página del tramo, empezando en 1.
+     * @param end La última página del tramo, incluida.
+     * @return El texto de cada página del tramo.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    private static String[] extractRange(File file, int start, int end) throws IOException {
+        try (PDDocument document = PDDocument.load(file)) {
+            return stripPages(document, start, end);
+        }
+    }
+
+    /**
+     * Extrae el texto de un tramo de páginas de un documento abierto.
+     *
+     * @param document El documento.
+     * @param start La primera página, empezando en 1.
+     * @param end La última página, incluida.
+     * @return El texto de cada página.
+     * @throws IOException Si no se puede extraer el texto.
+     */
+    private static String[] stripPages(PDDocument document, int start, int end) throws IOException {
+        PDFTextStripper pdfStripper = new PDFTextStripper();
+        pdfStripper.setLineSeparator("\n"); // Así los desplazamientos no dependen del sistema operativo.
+        String[] texts = new String[Math.max(0, end - start + 1)];
+        for (int page = start; page <= end; page++) {
+            pdfStripper.setStartPage(page);
+            pdfStripper.setEndPage(page);
+            texts[page - start] = pdfStripper.getText(document);
+        }
+        return texts;
+    }
+
+    /**
+     * Emite las palabras de varias páginas consecutivas, con su número de página.
+     *
+     * @param texts El texto de cada página.
+     * @param firstPage El número de la primera página.
+     * @param tokens Recibe las palabras.
+     */
+    private static void emitPages(String[] texts, int firstPage, TokenEmitter tokens) {
+        for (int i = 0; i < texts.length; i++) {
+            tokens.startPage(firstPage + i);
+            String pageText = texts[i];
+            int lineCount = 0;
+            int start = 0;
+            // Separar la página en líneas por '\n'.
+            while (start <= pageText.length()) {
+                int end = pageText.indexOf('\n', start);
+                if (end < 0) {
+                    end = pageText.length();
+                }
+                lineCount++;
+                tokens.emitLine(pageText.substring(start, end), lineCount, start);
+                start = end + 1;
+            }
+        }
+    }
+
     /**
      * Lee un archivo PDF y procesa su contenido para extraer palabras,
      * y las inserta en el árbol AVL con sus ocurrencias.
@@ -33,43 +330,10 @@ public class PDFFileReader {
      * @param filePath La ruta al archivo PDF que será procesado.
      */
     public void readFileAndInsertWords(String filePath) {
-        try (PDDocument document = PDDocument.load(new File(filePath))) {
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            int pageCounter = 0;
-            while (pageCounter < document.getNumberOfPages()) {
-                pdfStripper.setStartPage(pageCounter + 1);
-                pdfStripper.setEndPage(pageCounter + 1);
-                String pageText = pdfStripper.getText(document);
-                String[] lines = pageText.split("\\r?\\n");
-                int lineCount = 0;
-                int wordCount = 0;  // Contador acumulativo de palabras para mantener la posición secuencial.
-                Occurrence previous = null;
-
-                for (String line : lines) {
-                    lineCount++;
-                    String[] words = line.split("\\s+");
-                    int lineWordCount = 0;  // Contador de palabras en la línea actual.
-
-                    for (String word : words) {
-                        if (!word.isEmpty()) {
-                            lineWordCount++;
-                            String originalWord = word;
-                            word = Normalizer.normalizeWord(word);
-                            Occurrence occurrence = new Occurrence(filePath, originalWord, wordCount + 1, lineCount, lineWordCount);
-                            avlTree.insert(word, occurrence);
-                            wordCount++;
-                            if (previous != null) {
-                                occurrence.setPrevious(previous);
-                                previous.setNext(occurrence);
-                            }
-                            previous = occurrence;
-                        }
-                    }
-                }
-                pageCounter++;
-            }
+        try {
+            readInto(filePath, avlTree);
         } catch (IOException e) {
             logger.error("Error al leer el archivo PDF: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
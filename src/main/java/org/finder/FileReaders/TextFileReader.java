@@ -1,9 +1,8 @@
 package org.finder.FileReaders;
-import org.finder.Tree.Occurrence;
-import org.finder.Tree.Normalizer;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.finder.Tree.AVLTree;
@@ -14,10 +13,17 @@ import org.finder.Tree.AVLTree;
  * gestionando su inserción en el árbol AVL según su aparición en el texto.
  * Utiliza un enfoque secuencial y acumulativo para mantener un conteo correcto de las posiciones de las palabras.
  */
-public class TextFileReader {
+public class TextFileReader implements DocumentReader {
     // Crear una instancia del logger para la clase
     private static final Logger logger = LogManager.getLogger(TextFileReader.class);
     private AVLTree avlTree;// Referencia al árbol AVL donde se insertarán las palabras.
+
+    /**
+     * Construye un lector sin árbol asociado, para usarlo como {@link DocumentReader}.
+     */
+    public TextFileReader() {
+    }
+
     /**
      * Construye un nuevo lector de archivos de texto asociado a un árbol AVL específico.
      * Este constructor permite la inyección de una instancia de AVLTree, facilitando la gestión de las palabras extraídas.
@@ -28,42 +34,60 @@ public class TextFileReader {
         this.avlTree = avlTree;
     }
 
+    @Override
+    public String[] extensions() {
+        return new String[]{"txt"};
+    }
+
     /**
-     * Lee un archivo de texto línea por línea, procesa cada línea para extraer palabras,
-     * y las inserta en el árbol AVL con sus ocurrencias.
+     * Lee un archivo de texto en UTF-8 y emite sus palabras en una sola pasada con {@link Utf8Tokenizer}.
      *
-     * @param filePath La ruta al archivo de texto que será procesado.
+     * @param file El archivo de texto.
+     * @param tokens Recibe las palabras.
+     * @throws IOException Si no se puede leer el archivo.
      */
-    public void readFileAndInsertWords(String filePath) {
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            int wordCount = 0; // Contador acumulativo de palabras para mantener la posición secuencial.
-            int lineCount = 0; // Contador de líneas.
-            Occurrence previous = null;
-
-            // Procesar el archivo línea por línea
-            while ((line = br.readLine()) != null) {
-                lineCount++;
-                String[] words = line.split("\\s+");
-                int lineWordCount = 0; // Contador de palabras en la línea actual.
+    @Override
+    public void read(Path file, TokenEmitter tokens) throws IOException {
+        Utf8Tokenizer.tokenize(file, tokens::emit);
+    }
 
-                // Procesar cada palabra en la línea
-                for (String word : words) {
-                    if (!word.isEmpty()) {  // Evitar procesar cadenas vacías.
-                        lineWordCount++;
-                        String originalWord = word;
-                        word = Normalizer.normalizeWord(word);
-                        Occurrence occurrence = new Occurrence(filePath, originalWord, wordCount + 1, lineCount, lineWordCount);
-                        avlTree.insert(word, occurrence);
-                        wordCount++; // Aumentar el contador acumulativo de palabras
-                        if (previous != null) {
-                            occurrence.setPrevious(previous);
-                            previous.setNext(occurrence);
-                        }
-                        previous = occurrence;
-                    }
+    /**
+     * Lee el texto completo del archivo en UTF-8, con cada fin de línea ({@code \r\n}, {@code \r} o {@code \n})
+     * reducido a {@code \n}, igual que lo cuenta {@link Utf8Tokenizer}.
+     *
+     * @param file El archivo de texto.
+     * @return Un arreglo con el texto del archivo como única página.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    @Override
+    public String[] extractPages(Path file) throws IOException {
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        if (text.indexOf('\r') < 0) {
+            return new String[]{text};
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\r') {
+                normalized.append('\n');
+                if (i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
                 }
+            } else {
+                normalized.append(c);
             }
+        }
+        return new String[]{normalized.toString()};
+    }
+
+    /**
+     * Lee un archivo de texto en UTF-8, extrae sus palabras y las inserta en el árbol AVL con sus ocurrencias.
+     *
+     * @param filePath La ruta al archivo de texto que será procesado.
+     */
+    public void readFileAndInsertWords(String filePath) {
+        try {
+            readInto(filePath, avlTree);
         } catch (IOException e) {
             logger.error("Error al leer el archivo: " + e.getMessage(), e);
         }
@@ -0,0 +1,106 @@
+package org.finder.FileReaders;
+
+import org.finder.Tree.Normalizer;
+import org.finder.Tree.TokenBatch;
+
+import java.util.function.Consumer;
+
+/**
+ * Recibe las palabras que extrae un {@link DocumentReader}, las normaliza y las agrupa en bloques de
+ * {@link TokenBatch#CAPACITY} palabras que entrega al destino (el árbol directamente, o la cola de la etapa de
+ * escritura del índice). Lleva la posición acumulada de cada palabra en el documento.
+ *
+ * <p>Cada documento usa su propio emisor, desde un solo hilo.
+ */
+public class TokenEmitter {
+    private final Consumer<TokenBatch> sink;
+    private final Normalizer normalizer = new Normalizer(); // Buffer propio, sin pasar por el del hilo.
+    private TokenBatch batch = new TokenBatch();
+    private int position = 0; // Palabras emitidas en el documento.
+    private int page = 0; // Página actual, 0 si el documento no tiene páginas.
+
+    /**
+     * Crea el emisor de un documento.
+     *
+     * @param sink Recibe cada bloque lleno y, con {@link #flush()}, el último.
+     */
+    public TokenEmitter(Consumer<TokenBatch> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Agrega una palabra del documento.
+     *
+     * @param originalWord La palabra tal como aparece en el texto.
+     * @param line El número de línea.
+     * @param linePosition La posición de la palabra dentro de la línea.
+     * @param offset El índice del primer carácter de la palabra en el texto del documento (en los documentos con
+     *               páginas, en el texto de su página).
+     */
+    public void emit(String originalWord, int line, int linePosition, int offset) {
+        batch.add(originalWord, normalizer.normalize(originalWord), ++position, line, linePosition, offset, page);
+        if (batch.isFull()) {
+            sink.accept(batch);
+            batch = new TokenBatch();
+        }
+    }
+
+    /**
+     * Separa una línea de texto en palabras y las agrega, igual que {@code line.split("\\s+")} pero sin
+     * expresiones regulares: las palabras se separan por espacios, tabuladores, saltos de página y de línea.
+     *
+     * @param text El texto de la línea.
+     * @param line El número de línea.
+     * @param lineOffset El índice del primer carácter de la línea en el texto del documento (o de su página).
+     */
+    public void emitLine(String text, int line, int lineOffset) {
+        int linePosition = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                emit(text.substring(start, i), line, ++linePosition, lineOffset + start);
+            }
+        }
+    }
+
+    /**
+     * Indica la página a la que pertenecen las palabras que se emitan a continuación.
+     * Los documentos sin páginas no lo llaman.
+     *
+     * @param page El número de página, empezando en 1.
+     */
+    public void startPage(int page) {
+        this.page = page;
+    }
+
+    /**
+     * Entrega el último bloque, si tiene palabras. Se llama al terminar el documento.
+     */
+    public void flush() {
+        if (batch.size() > 0) {
+            sink.accept(batch);
+            batch = new TokenBatch();
+        }
+    }
+
+    /**
+     * Devuelve cuántas palabras se emitieron.
+     *
+     * @return La cantidad de palabras del documento hasta ahora.
+     */
+    public int getCount() {
+        return position;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
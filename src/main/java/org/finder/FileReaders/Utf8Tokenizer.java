@@ -0,0 +1,149 @@
+package org.finder.FileReaders;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Separa un archivo de texto UTF-8 en palabras en una sola pasada, sin expresiones regulares ni arreglos por línea.
+ * El archivo se lee por bloques en un buffer directo reutilizado y se decodifica explícitamente como UTF-8
+ * (las secuencias inválidas se reemplazan por U+FFFD), así que no depende del juego de caracteres de la plataforma.
+ *
+ * <p>Las palabras y las líneas se cortan igual que {@code BufferedReader.readLine()} seguido de
+ * {@code line.split("\\s+")}: una palabra es una secuencia de caracteres distintos de espacio, tabulador,
+ * tabulador vertical, salto de página, retorno de carro y salto de línea, y una línea termina en
+ * {@code \n}, {@code \r} o {@code \r\n}. El desplazamiento de cada palabra se cuenta en el texto con cada fin
+ * de línea reducido a un solo carácter, como lo carga un {@code JTextArea}.
+ */
+public class Utf8Tokenizer {
+    private static final int BUFFER_SIZE = 1 << 20; // 1 MB por lectura.
+
+    /**
+     * Recibe cada palabra del archivo, en orden.
+     */
+    @FunctionalInterface
+    public interface TokenConsumer {
+        /**
+         * Procesa una palabra.
+         *
+         * @param word La palabra tal como aparece en el texto.
+         * @param line El número de la línea, empezando en 1.
+         * @param linePosition La posición de la palabra dentro de la línea, empezando en 1.
+         * @param offset El índice del primer carácter de la palabra en el texto.
+         */
+        void accept(String word, int line, int linePosition, int offset);
+    }
+
+    private final TokenConsumer consumer;
+    private char[] token = new char[64]; // Caracteres de la palabra en curso; crece si hace falta.
+    private int tokenLength = 0;
+    private int line = 1;
+    private int linePosition = 0; // Palabras ya emitidas en la línea actual.
+    private int offset = 0; // Caracteres leídos, contando cada fin de línea como uno.
+    private int tokenStart = 0; // Desplazamiento de la palabra en curso.
+    private boolean afterCarriageReturn = false; // El carácter anterior fue \r: un \n a continuación no abre otra línea.
+
+    private Utf8Tokenizer(TokenConsumer consumer) {
+        this.consumer = consumer;
+    }
+
+    /**
+     * Lee un archivo y entrega sus palabras.
+     *
+     * @param file El archivo de texto en UTF-8.
+     * @param consumer Recibe cada palabra con su línea y su posición en la línea.
+     * @throws IOException Si no se puede leer el archivo.
+     */
+    public static void tokenize(Path file, TokenConsumer consumer) throws IOException {
+        new Utf8Tokenizer(consumer).read(file);
+    }
+
+    private void read(Path file) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            boolean endOfInput = false;
+            while (true) {
+                if (!endOfInput && bytes.hasRemaining() && channel.read(bytes) < 0) {
+                    endOfInput = true;
+                }
+                bytes.flip();
+                // Una secuencia UTF-8 cortada al final del bloque queda en el buffer para la próxima lectura.
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+                bytes.compact();
+                boolean finished = endOfInput && result.isUnderflow();
+                if (finished) {
+                    decoder.flush(chars);
+                }
+                chars.flip();
+                scan(chars.array(), chars.position(), chars.limit());
+                chars.clear();
+                if (finished) {
+                    break;
+                }
+            }
+        }
+        endToken();
+    }
+
+    private void scan(char[] text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text[i];
+            switch (c) {
+                case '\r' -> {
+                    endToken();
+                    newLine();
+                    offset++;
+                    afterCarriageReturn = true;
+                }
+                case '\n' -> {
+                    endToken();
+                    if (!afterCarriageReturn) {
+                        newLine();
+                        offset++;
+                    }
+                    afterCarriageReturn = false;
+                }
+                case ' ', '\t', '\u000B', '\f' -> {
+                    endToken();
+                    offset++;
+                    afterCarriageReturn = false;
+                }
+                default -> {
+                    if (tokenLength == 0) {
+                        tokenStart = offset;
+                    }
+                    offset++;
+                    if (tokenLength == token.length) {
+                        token = Arrays.copyOf(token, tokenLength * 2);
+                    }
+                    token[tokenLength++] = c;
+                    afterCarriageReturn = false;
+                }
+            }
+        }
+    }
+
+    private void newLine() {
+        line++;
+        linePosition = 0;
+    }
+
+    private void endToken() {
+        if (tokenLength > 0) {
+            consumer.accept(new String(token, 0, tokenLength), line, ++linePosition, tokenStart);
+            tokenLength = 0;
+        }
+    }
+}
@@ -1,53 +1,97 @@
 package org.finder;
 
 // Importaciones necesarias para manejar archivos PDF y DOCX, componentes de GUI, y otras utilidades.
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.apache.poi.xwpf.usermodel.XWPFParagraph;
-import org.finder.FileReaders.PDFFileReader;
-import org.finder.FileReaders.TextFileReader;
-import org.finder.FileReaders.DocxFileReader;
-import org.finder.Sorting.Sorting;
-import org.finder.Tree.AVLTree;
-import org.finder.biblioteca.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.finder.FileReaders.DocumentReader;
+import org.finder.FileReaders.DocumentReaders;
+import org.finder.FileReaders.ExtractedTextCache;
+import org.finder.Index.IndexSnapshot;
+import org.finder.Index.LibraryIndex;
+import org.finder.Index.LibraryWatcher;
+import org.finder.Query.Bm25Ranker;
+import org.finder.Sorting.ResultOrder;
+import org.finder.Sorting.ResultOrder.Key;
 import org.finder.Results.*;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.filechooser.FileSystemView;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultHighlighter;
 import javax.swing.text.Highlighter;
-import javax.swing.text.JTextComponent;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 /**
  * Clase principal para la aplicación de biblioteca con interfaz gráfica.
  * Permite agregar, eliminar y buscar archivos en la biblioteca.
  */
 public class Gui extends JFrame {
+    private static final Logger logger = LogManager.getLogger(Gui.class);
+
+    /**
+     * Propiedad del sistema con los milisegundos sin escribir antes de buscar mientras se escribe
+     * (por ejemplo {@code -Dtextfinder.search.debounceMs=250}).
+     */
+    public static final String DEBOUNCE_PROPERTY = "textfinder.search.debounceMs";
+
     // Componentes de la GUI para mostrar archivos, ingresar texto de búsqueda, y mostrar resultados.
     private final JTextArea fileDisplayArea; // Área de texto para mostrar los archivos en la biblioteca.
     private final JTextField searchTextField; // Campo de texto para ingresar la palabra o frase a buscar.
-    private final JPanel resultsPanel; // Panel para mostrar los resultados de la búsqueda.
+    private final JList<Result> resultsList; // Lista virtual de los resultados: solo se pintan las filas visibles.
+    private final JScrollPane resultsScrollPane; // Scroll de la lista de resultados.
+    private final JLabel resultsCountLabel; // Cantidad de resultados cargados y totales.
     private final JComboBox<String> sortComboBox; // ComboBox para seleccionar el criterio de ordenamiento.
 
-    // Árbol AVL para almacenar y buscar palabras en los archivos.
-    private final AVLTree tree;
+    // Índice de la biblioteca (árbol AVL) para almacenar y buscar palabras en los archivos.
+    private final LibraryIndex index;
+
+    // Vigilante de la carpeta biblioteca que reindexa los archivos agregados, modificados o eliminados desde afuera.
+    private LibraryWatcher watcher;
 
     // Variable para almacenar el criterio de ordenamiento seleccionado.
     private String orden = "";
 
-    // Instancia de la clase biblioteca para manejar los resultados.
-    private biblioteca biblioteca = new biblioteca();
+    // Criterios de cada opción de ordenamiento; los empates se resuelven por nombre y posición en el documento.
+    private static final ResultOrder BY_NAME = ResultOrder.by(Key.NAME, false).then(Key.POSITION, true);
+    private static final ResultOrder BY_DATE = ResultOrder.by(Key.DATE, false).then(Key.NAME, true).then(Key.POSITION, true);
+    private static final ResultOrder BY_SIZE = ResultOrder.by(Key.SIZE, false).then(Key.NAME, true).then(Key.POSITION, true);
+
+    // Resultados de la última búsqueda, convertidos de a páginas a medida que se desplaza la lista.
+    private ResultPageModel resultModel = new ResultPageModel();
+
+    // Las búsquedas corren en hilos virtuales para no bloquear la interfaz; cada búsqueda nueva cancela la anterior.
+    private final ExecutorService searchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Future<?> currentSearch; // Búsqueda en curso, o null.
+    private int searchGeneration = 0; // Número de la última búsqueda; los resultados de búsquedas anteriores se descartan.
+    private final Timer debounceTimer; // Espera a que se deje de escribir antes de buscar.
+
+    // Texto extraído de los documentos abiertos en el visor, para no volver a extraerlo en cada apertura.
+    private final ExtractedTextCache textCache = ExtractedTextCache.configured();
+    private static final int MAX_HIGHLIGHTS = 2000; // Coincidencias destacadas como máximo en el visor.
 
     /**
      * Constructor para inicializar la interfaz gráfica.
@@ -57,10 +101,19 @@ public class Gui extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // Operación de cierre por defecto.
         setSize(800, 600); // Tamaño de la ventana.
         setLayout(new BorderLayout()); // Layout de la ventana.
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                searchExecutor.shutdownNow(); // Cancelar la búsqueda en curso.
+                logger.info("Caché de búsquedas: " + index.getQueryCache());
+                logger.info("Caché de textos: " + textCache);
+                stopWatcher();
+                saveIndexIfDirty(); // Guardar los documentos agregados o eliminados para el próximo inicio.
+            }
+        });
 
         // Inicializar el árbol AVL y los lectores de archivos.
-        tree = new AVLTree();
-        initializeFileReaders();
+        index = initializeFileReaders();
 
         // Columna derecha para mostrar los archivos.
         JPanel rightPanel = new JPanel();
@@ -91,64 +144,141 @@ public class Gui extends JFrame {
         topPanel.setLayout(new BorderLayout());
         searchTextField = new JTextField(); // Campo de texto para búsqueda.
         JButton searchButton = new JButton("Buscar");
-        searchButton.addActionListener(e -> searchFiles()); // Acción al presionar el botón de búsqueda.
+        searchButton.addActionListener(e -> searchFiles(true)); // Acción al presionar el botón de búsqueda.
+        searchTextField.addActionListener(e -> searchFiles(true)); // Enter busca sin esperar.
+        // Búsqueda mientras se escribe: cada cambio reinicia la espera y la búsqueda sale cuando se deja de escribir.
+        debounceTimer = new Timer(configuredDebounce(), e -> searchFiles(false));
+        debounceTimer.setRepeats(false);
+        searchTextField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+        });
         topPanel.add(searchTextField, BorderLayout.CENTER);
         topPanel.add(searchButton, BorderLayout.EAST);
 
         // Botón de ordenamiento con desplegable.
-        String[] sortOptions = {"Nombre del archivo", "Fecha de creación", "Tamaño"};
+        String[] sortOptions = {"Nombre del archivo", "Fecha de creación", "Tamaño", "Relevancia"};
         sortComboBox = new JComboBox<>(sortOptions);
         sortComboBox.addActionListener(e -> {
             String selectedOption = (String) sortComboBox.getSelectedItem();
+            boolean wasRanked = orden.equals("relevance");
             switch (selectedOption) {
                 case "Nombre del archivo":
                     orden = "Name";
                     break;
                 case "Fecha de creación":
-                    Sorting.bubbleSortDescending(biblioteca.resultado());
                     orden = "date";
                     break;
                 case "Tamaño":
-                    Sorting.radixSortByFileSizeDescending(biblioteca.resultado());
                     orden = "size";
                     break;
+                case "Relevancia":
+                    orden = "relevance"; // Se aplica en la próxima búsqueda: los resultados ya llegan ordenados.
+                    break;
+            }
+            if (orden.equals("relevance") || wasRanked) {
+                // El orden por relevancia sale de la búsqueda, y sus resultados son solo los más relevantes:
+                // al entrar o salir de ese modo hay que repetirla para tener la lista que corresponde.
+                searchFiles(false);
+            } else {
+                mostrarpantalla(resultModel); // Reordenar los resultados que ya se muestran.
             }
         });
         topPanel.add(sortComboBox, BorderLayout.WEST);
         topPanel.setPreferredSize(new Dimension(getWidth(), 50)); // Tamaño preferido para el panel superior.
         add(topPanel, BorderLayout.NORTH); // Añadir el panel superior a la ventana principal.
 
-        // Panel de resultados para mostrar los resultados de búsqueda.
-        resultsPanel = new JPanel();
-        resultsPanel.setLayout(new BoxLayout(resultsPanel, BoxLayout.Y_AXIS));
-        JScrollPane resultsScrollPane = new JScrollPane(resultsPanel);
-        add(resultsScrollPane, BorderLayout.CENTER); // Añadir el panel de resultados al centro de la ventana principal.
+        // Lista de resultados de búsqueda. Todas las filas miden lo mismo, así la lista no mide cada resultado.
+        ResultCellRenderer renderer = new ResultCellRenderer();
+        resultsList = new JList<>(resultModel);
+        resultsList.setCellRenderer(renderer);
+        resultsList.setFixedCellHeight(renderer.getPreferredSize().height);
+        resultsList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultsList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    openSelectedResult(); // Doble clic abre el archivo en la coincidencia.
+                }
+            }
+        });
+        resultsList.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "abrir");
+        resultsList.getActionMap().put("abrir", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                openSelectedResult();
+            }
+        });
+        resultsScrollPane = new JScrollPane(resultsList);
+        // Cargar la siguiente página cuando se desplaza o se agranda la lista hasta la última fila cargada.
+        resultsScrollPane.getViewport().addChangeListener(e -> loadVisiblePages());
+
+        JPanel resultsFooter = new JPanel(new BorderLayout());
+        resultsCountLabel = new JLabel(" ");
+        JButton openButton = new JButton("Abrir");
+        openButton.addActionListener(e -> openSelectedResult()); // Acción al presionar el botón de abrir.
+        resultsFooter.add(resultsCountLabel, BorderLayout.CENTER);
+        resultsFooter.add(openButton, BorderLayout.EAST);
+
+        JPanel resultsPanel = new JPanel(new BorderLayout());
+        resultsPanel.add(resultsScrollPane, BorderLayout.CENTER);
+        resultsPanel.add(resultsFooter, BorderLayout.SOUTH);
+        add(resultsPanel, BorderLayout.CENTER); // Añadir el panel de resultados al centro de la ventana principal.
 
         setVisible(true); // Hacer visible la ventana principal.
 
         // Cargar archivos inicialmente.
         loadFiles();
+        startWatcher();
     }
 
     /**
-     * Inicializa los lectores de archivos y lee los archivos de la carpeta biblioteca.
+     * Inicializa los lectores de archivos y lee los archivos de la carpeta biblioteca, o recarga la instantánea
+     * del índice si está vigente (ver {@link LibraryIndex#open}).
+     *
+     * @return El índice de la biblioteca.
      */
-    private void initializeFileReaders() {
-        // Crear instancias de los lectores de archivos y leer los archivos de la carpeta biblioteca.
-        TextFileReader textFileReader = new TextFileReader(tree);
-        PDFFileReader pdfFileReader = new PDFFileReader(tree);
-        DocxFileReader docxFileReader = new DocxFileReader(tree);
-
+    private LibraryIndex initializeFileReaders() {
         File libraryDir = new File("src/main/biblioteca");
         List<File> files = getAllFiles(libraryDir); // Obtener todos los archivos de la carpeta biblioteca.
+        return LibraryIndex.open(files, IndexSnapshot.DEFAULT_PATH);
+    }
 
-        for (File file : files) {
-            if (file.getName().endsWith(".txt")) {
-                textFileReader.readFileAndInsertWords(file.getAbsolutePath()); // Leer y procesar archivos de texto.
-            } else if (file.getName().endsWith(".pdf")) {
-                pdfFileReader.readFileAndInsertWords(file.getAbsolutePath()); // Leer y procesar archivos PDF.
-            } else if (file.getName().endsWith(".docx")) {
-                docxFileReader.readFileAndInsertWords(file.getAbsolutePath()); // Leer y procesar archivos DOCX.
+    /**
+     * Empieza a vigilar la carpeta biblioteca para indexar en segundo plano los cambios hechos desde otras aplicaciones.
+     * Cuando se aplican cambios, la lista de archivos se recarga en el hilo de la interfaz.
+     */
+    private void startWatcher() {
+        try {
+            watcher = new LibraryWatcher(new File("src/main/biblioteca").toPath(), index,
+                    LibraryWatcher.configuredDebounceMillis(), () -> SwingUtilities.invokeLater(this::loadFiles));
+            watcher.start();
+        } catch (IOException e) {
+            logger.error("No se pudo vigilar la carpeta biblioteca: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deja de vigilar la carpeta biblioteca.
+     */
+    private void stopWatcher() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                logger.error("Error al detener el vigilante de la biblioteca: " + e.getMessage(), e);
             }
         }
     }
@@ -176,18 +306,7 @@ public class Gui extends JFrame {
      * @return Lista de archivos encontrados.
      */
     private List<File> getAllFiles(File dir) {
-        List<File> fileList = new ArrayList<>();
-        File[] files = dir.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isFile() && (file.getName().endsWith(".txt") || file.getName().endsWith(".pdf") || file.getName().endsWith(".docx"))) {
-                    fileList.add(file); // Añadir archivos a la lista.
-                } else if (file.isDirectory()) {
-                    fileList.addAll(getAllFiles(file)); // Recursivamente añadir archivos de subdirectorios.
-                }
-            }
-        }
-        return fileList; // Devolver la lista de archivos.
+        return DocumentReaders.supportedFiles(dir);
     }
 
     /**
@@ -206,109 +325,227 @@ public class Gui extends JFrame {
     }
 
     /**
-     * Busca archivos que contienen el texto ingresado y muestra los resultados en el panel de resultados.
+     * Devuelve la espera configurada mediante {@link #DEBOUNCE_PROPERTY}, o 250 milisegundos si no está definida.
+     *
+     * @return Los milisegundos a esperar.
      */
-    private void searchFiles() {
-        String searchText = UnicodeHelper.removeAccents(searchTextField.getText().toLowerCase()); // Eliminar acentos y convertir a minúsculas el texto de búsqueda.
-        resultsPanel.removeAll(); // Limpiar el panel de resultados.
-        this.biblioteca = new biblioteca(); // Crear nueva instancia de biblioteca para los resultados.
-        List<String> results = tree.searchString(searchText); // Buscar la cadena en el árbol AVL.
-        for (String result : results) {
-            String[] parts = result.split(": ");
-            String filePath = parts[0];
-            String textSnippet = parts[4]; // Usar el fragmento de texto correspondiente.
-            File file = new File(filePath);
-            long creationDate = getFileCreationDate(file); // Obtener la fecha de creación del archivo.
-
-            this.biblioteca.add(file, textSnippet, creationDate, parts[3]); // Añadir el resultado a la biblioteca.
-        }
-        mostrarpantalla(biblioteca); // Mostrar los resultados en la pantalla.
+    public static int configuredDebounce() {
+        return Math.max(0, Integer.getInteger(DEBOUNCE_PROPERTY, 250));
     }
 
     /**
-     * Muestra los resultados en el panel de resultados y los ordena según el criterio seleccionado.
+     * Busca archivos que contienen el texto ingresado y muestra los resultados en la lista de resultados.
+     * La búsqueda corre en un hilo virtual y cancela la anterior; los resultados llegan de a partes al hilo de la
+     * interfaz, así la ventana sigue respondiendo y los primeros se ven antes de que termine. Los resultados
+     * anteriores se conservan hasta que llega la primera parte.
      *
-     * @param biblioteca La biblioteca que contiene los resultados de la búsqueda.
+     * @param explicit true si se buscó con el botón o Enter; false si fue mientras se escribía, en cuyo caso una
+     *                 consulta a medio escribir no abre un diálogo de error.
      */
-    public void mostrarpantalla(biblioteca biblioteca) {
-        // Ordenar los resultados según el criterio seleccionado.
-        if (orden.equals("Name")) {
-            Sorting.quickSortByFileNameDescending(this.biblioteca.resultado());
-        } else if (orden.equals("date")) {
-            Sorting.bubbleSortDescending(biblioteca.resultado());
-        } else if (orden.equals("size")) {
-            Sorting.radixSortByFileSizeDescending(this.biblioteca.resultado());
+    private void searchFiles(boolean explicit) {
+        debounceTimer.stop();
+        if (currentSearch != null) {
+            currentSearch.cancel(true); // Interrumpe la búsqueda anterior entre dos resultados.
+            currentSearch = null;
         }
-
-        // Añadir los resultados al panel de resultados.
-        for (Result result : biblioteca.resultado()) {
-            resultsPanel.add(createResultPanel(new File(result.getFilePath()), result.textSnippetm, result.creationDate, result.linePosition));
+        int generation = ++searchGeneration;
+        // El índice normaliza cada palabra buscada (minúsculas, sin acentos); el texto se pasa tal cual para reconocer
+        // los operadores AND, OR y NOT, que van en mayúsculas.
+        String searchText = searchTextField.getText();
+        if (searchText.isBlank()) {
+            mostrarpantalla(new ResultPageModel());
+            return;
         }
-        resultsPanel.revalidate(); // Refrescar el panel de resultados.
-        resultsPanel.repaint(); // Repintar el panel de resultados.
+        boolean ranked = orden.equals("relevance");
+        // Ordenar por nombre, fecha o tamaño necesita todos los resultados: se entregan de una vez.
+        boolean sorted = orden.equals("Name") || orden.equals("date") || orden.equals("size");
+        int chunkSize = sorted ? Integer.MAX_VALUE : ResultPageModel.configuredPageSize();
+        ResultPageModel model = new ResultPageModel();
+        resultsCountLabel.setText("Buscando...");
+        currentSearch = searchExecutor.submit(() -> runSearch(searchText, ranked, chunkSize, generation, model, explicit));
     }
 
     /**
-     * Obtiene la fecha de creación de un archivo.
+     * Ejecuta una búsqueda fuera del hilo de la interfaz. Las partes de los resultados solo se juntan mientras el
+     * índice tiene tomado el candado de lectura; los atributos de sus archivos se leen del disco después de
+     * soltarlo, parte por parte, y cada parte se publica en el hilo de la interfaz.
      *
-     * @param file El archivo del cual se desea obtener la fecha de creación.
-     * @return La fecha de creación en milisegundos.
+     * @param searchText El texto a buscar.
+     * @param ranked true para ordenar por relevancia.
+     * @param chunkSize La cantidad de resultados de cada parte.
+     * @param generation El número de esta búsqueda.
+     * @param model El modelo que recibe los resultados.
+     * @param explicit true si se buscó con el botón o Enter.
      */
-    private long getFileCreationDate(File file) {
+    private void runSearch(String searchText, boolean ranked, int chunkSize, int generation, ResultPageModel model, boolean explicit) {
+        Set<String> knownPaths = new HashSet<>();
         try {
-            BasicFileAttributes attr = Files.readAttributes(file.toPath(), BasicFileAttributes.class); // Leer los atributos del archivo.
-            return attr.creationTime().toMillis(); // Devolver la fecha de creación en milisegundos.
-        } catch (Exception e) {
-            e.printStackTrace();
-            return 0; // En caso de error, devolver 0.
+            if (ranked) {
+                List<String> results = index.searchRanked(searchText, Bm25Ranker.configuredTopK()); // Los documentos más relevantes.
+                publishResults(generation, model, results, ResultPageModel.readAttributes(results, knownPaths));
+            } else {
+                List<List<String>> chunks = new ArrayList<>();
+                index.searchString(searchText, chunkSize, chunks::add); // Buscar la cadena en el árbol AVL.
+                for (List<String> chunk : chunks) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Búsqueda cancelada");
+                    }
+                    publishResults(generation, model, chunk, ResultPageModel.readAttributes(chunk, knownPaths));
+                }
+            }
+            publishResults(generation, model, new ArrayList<>(), new HashMap<>()); // Mostrar la lista aunque no haya resultados.
+        } catch (CancellationException e) {
+            // Una búsqueda más nueva la reemplazó.
+        } catch (IllegalArgumentException e) {
+            SwingUtilities.invokeLater(() -> showQueryError(generation, e.getMessage(), explicit));
+        } catch (RuntimeException e) {
+            logger.error("Error al buscar \"" + searchText + "\": " + e.getMessage(), e);
         }
     }
 
     /**
-     * Crea un panel para mostrar la información de un archivo y un fragmento de texto encontrado.
+     * Agrega una parte de los resultados en el hilo de la interfaz, si su búsqueda sigue siendo la última.
+     * La primera parte reemplaza a los resultados anteriores.
      *
-     * @param file         El archivo.
-     * @param textSnippet  El fragmento de texto encontrado.
-     * @param creationDate La fecha de creación del archivo.
-     * @param linePosition La posición de la línea en el archivo.
-     * @return El panel creado.
+     * @param generation El número de la búsqueda.
+     * @param model El modelo de la búsqueda.
+     * @param results La parte de los resultados.
+     * @param attributes Los atributos ya leídos de sus archivos.
      */
-    private JPanel createResultPanel(File file, String textSnippet, long creationDate, String linePosition) {
-        JPanel panel = new JPanel();
-        panel.setLayout(new BorderLayout());
-        panel.setBorder(BorderFactory.createLineBorder(Color.BLACK)); // Borde negro para el panel.
-
-        String fileInfo = "Archivo: " + file.getName() +
-                " | Fecha de creación: " + new SimpleDateFormat("dd/MM/yyyy").format(creationDate) +
-                " | Tamaño: " + file.length() + " bytes";
-
-        JLabel fileInfoLabel = new JLabel(fileInfo); // Etiqueta con la información del archivo.
-        panel.add(fileInfoLabel, BorderLayout.NORTH); // Añadir la etiqueta al norte del panel.
+    private void publishResults(int generation, ResultPageModel model, List<String> results, Map<String, BasicFileAttributes> attributes) {
+        SwingUtilities.invokeLater(() -> {
+            if (generation != searchGeneration) {
+                return; // Llegó tarde: ya hay una búsqueda más nueva.
+            }
+            model.addResults(results, attributes);
+            if (model != resultModel) {
+                mostrarpantalla(model); // Mostrar los resultados en la pantalla.
+            } else {
+                loadVisiblePages();
+            }
+        });
+    }
 
-        JTextArea occurrenceTextArea = new JTextArea(textSnippet); // Área de texto con el fragmento de texto encontrado.
-        occurrenceTextArea.setEditable(false); // Hacer no editable el área de texto.
-        panel.add(new JScrollPane(occurrenceTextArea), BorderLayout.CENTER); // Añadir el área de texto con scroll al centro del panel.
+    /**
+     * Informa que la consulta está mal formada, si su búsqueda sigue siendo la última. Al buscar con el botón
+     * o Enter se muestra un diálogo; mientras se escribe solo se avisa debajo de los resultados.
+     *
+     * @param generation El número de la búsqueda.
+     * @param message El mensaje del error.
+     * @param explicit true si se buscó con el botón o Enter.
+     */
+    private void showQueryError(int generation, String message, boolean explicit) {
+        if (generation != searchGeneration) {
+            return;
+        }
+        if (explicit) {
+            loadVisiblePages(); // Quitar el aviso de "Buscando...".
+            JOptionPane.showMessageDialog(this, message, "Consulta inválida", JOptionPane.WARNING_MESSAGE);
+        } else {
+            resultsCountLabel.setText("Consulta incompleta: " + message);
+        }
+    }
 
-        JPanel buttonPanel = new JPanel();
-        JButton openButton = new JButton("Abrir");
+    /**
+     * Muestra los resultados en la lista de resultados y los ordena según el criterio seleccionado.
+     * Ordenar por nombre, fecha o tamaño necesita todas las filas; sin ordenar (o por relevancia, que ya llegan
+     * ordenados) solo se cargan las páginas visibles.
+     *
+     * @param model Los resultados de la búsqueda.
+     */
+    public void mostrarpantalla(ResultPageModel model) {
+        // Ordenar los resultados según el criterio seleccionado.
+        if (orden.equals("Name")) {
+            BY_NAME.sort(model.loadAll());
+        } else if (orden.equals("date")) {
+            BY_DATE.sort(model.loadAll());
+        } else if (orden.equals("size")) {
+            BY_SIZE.sort(model.loadAll());
+        }
+        model.rowsReordered();
 
-        openButton.addActionListener(e -> openFileAtOccurrence(file, searchTextField.getText(), linePosition)); // Acción al presionar el botón de abrir.
+        if (model != resultModel) {
+            resultModel = model;
+            resultsList.setModel(model);
+            resultsList.ensureIndexIsVisible(0);
+        }
+        loadVisiblePages();
+    }
 
-        buttonPanel.add(openButton); // Añadir el botón al panel de botones.
+    /**
+     * Carga páginas de resultados hasta cubrir las filas visibles de la lista más una fila de margen.
+     */
+    private void loadVisiblePages() {
+        Rectangle view = resultsScrollPane.getViewport().getViewRect();
+        int visibleRows = (view.y + view.height) / resultsList.getFixedCellHeight() + 1;
+        while (resultModel.hasMorePages() && resultModel.getSize() <= visibleRows) {
+            resultModel.loadNextPage();
+        }
+        resultsCountLabel.setText(resultModel.getTotalCount() == 0 ? " "
+                : "Mostrando " + resultModel.getSize() + " de " + resultModel.getTotalCount() + " resultados");
+    }
 
-        panel.add(buttonPanel, BorderLayout.SOUTH); // Añadir el panel de botones al sur del panel principal.
+    /**
+     * Abre el archivo del resultado seleccionado en la coincidencia encontrada.
+     */
+    private void openSelectedResult() {
+        Result result = resultsList.getSelectedValue();
+        if (result != null) {
+            openFileAtOccurrence(result);
+        }
+    }
 
-        return panel; // Devolver el panel creado.
+    /**
+     * Abre el archivo de un resultado en una nueva ventana, ubicado en la coincidencia y con las coincidencias
+     * de la búsqueda en ese archivo destacadas. El texto sale de la caché de textos extraídos y las coincidencias
+     * se ubican con los desplazamientos guardados en el índice, así que no se vuelve a leer ni a recorrer el
+     * documento. Los documentos con páginas se abren en la página de la coincidencia y solo se extrae esa página.
+     * La extracción, si hace falta, corre fuera del hilo de la interfaz.
+     *
+     * @param result El resultado a abrir.
+     */
+    private void openFileAtOccurrence(Result result) {
+        File file = new File(result.getFilePath());
+        List<int[]> matches = resultModel.matchesIn(result.getFilePath(), MAX_HIGHLIGHTS);
+        searchExecutor.submit(() -> {
+            try {
+                int[] target = index.locate(result.getFilePath(), result.position, result.matchLength);
+                List<int[]> spans = new ArrayList<>(matches.size());
+                for (int[] match : matches) {
+                    int[] span = index.locate(result.getFilePath(), match[0], match[1]);
+                    if (span != null) {
+                        spans.add(span);
+                    }
+                }
+                int page = target != null ? target[0] : result.page;
+                if (page > 0) {
+                    DocumentReader reader = DocumentReaders.forFile(file);
+                    int pageCount = reader == null ? page : Math.max(page, reader.pageCount(file.toPath()));
+                    String text = textCache.getPage(file, page);
+                    SwingUtilities.invokeLater(() -> showPagedDocument(file, pageCount, page, text, target, spans));
+                    prefetchPages(file, page, pageCount);
+                    return;
+                }
+                String[] pages = textCache.get(file);
+                SwingUtilities.invokeLater(() -> showDocument(file, pages, target, spans));
+            } catch (IOException e) {
+                logger.error("Error al abrir el archivo " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                        "No se pudo abrir el archivo " + file.getName() + ": " + e.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE));
+            }
+        });
     }
 
     /**
-     * Abre un archivo en una nueva ventana y resalta la palabra buscada.
+     * Muestra el texto de un documento en una nueva ventana. Las páginas se unen con un salto de línea.
      *
-     * @param file         El archivo a abrir.
-     * @param searchText   El texto buscado.
-     * @param linePosition La posición de la línea en el archivo.
+     * @param file   El archivo.
+     * @param pages  El texto de cada página.
+     * @param target La coincidencia elegida (página, inicio y fin), o null si el índice no la ubica.
+     * @param spans  Las coincidencias a destacar, con el mismo formato.
      */
-    private void openFileAtOccurrence(File file, String searchText, String linePosition) {
+    private void showDocument(File file, String[] pages, int[] target, List<int[]> spans) {
         JFrame fileFrame = new JFrame("Archivo: " + file.getName());
         fileFrame.setSize(800, 600); // Tamaño de la ventana.
         fileFrame.setLayout(new BorderLayout());
@@ -318,78 +555,180 @@ public class Gui extends JFrame {
         JScrollPane fileScrollPane = new JScrollPane(fileContentArea); // Scroll para el área de texto.
         fileFrame.add(fileScrollPane, BorderLayout.CENTER);
 
-        try {
-            // Abrir y leer el archivo según su tipo.
-            if (file.getName().endsWith(".txt")) {
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                fileContentArea.read(reader, null); // Leer el contenido del archivo.
-                highlightText(fileContentArea, searchText); // Resaltar el texto buscado.
-                fileContentArea.setCaretPosition(findPositionInText(fileContentArea.getText(), linePosition)); // Posicionar el cursor en la línea correcta.
-            } else if (file.getName().endsWith(".pdf")) {
-                PDDocument document = PDDocument.load(file);
-                PDFTextStripper stripper = new PDFTextStripper();
-                String text = stripper.getText(document); // Obtener el texto del archivo PDF.
-                fileContentArea.setText(text); // Establecer el texto en el área de texto.
-                highlightText(fileContentArea, searchText); // Resaltar el texto buscado.
-                fileContentArea.setCaretPosition(findPositionInText(text, linePosition)); // Posicionar el cursor en la línea correcta.
-                document.close(); // Cerrar el documento PDF.
-            } else if (file.getName().endsWith(".docx")) {
-                FileInputStream fis = new FileInputStream(file);
-                XWPFDocument document = new XWPFDocument(fis);
-                StringBuilder sb = new StringBuilder();
-                for (XWPFParagraph para : document.getParagraphs()) {
-                    sb.append(para.getText()).append("\n"); // Obtener el texto del archivo DOCX.
-                }
-                String text = sb.toString();
-                fileContentArea.setText(text); // Establecer el texto en el área de texto.
-                highlightText(fileContentArea, searchText); // Resaltar el texto buscado.
-                fileContentArea.setCaretPosition(findPositionInText(text, linePosition)); // Posicionar el cursor en la línea correcta.
-                document.close(); // Cerrar el documento DOCX.
+        int[] pageStarts = new int[pages.length]; // Desplazamiento de cada página en el texto unido.
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < pages.length; i++) {
+            if (i > 0) {
+                text.append('\n');
             }
-        } catch (IOException ex) {
-            ex.printStackTrace(); // Manejar la excepción en caso de error.
+            pageStarts[i] = text.length();
+            text.append(pages[i]);
+        }
+        fileContentArea.setText(text.toString());
+
+        Highlighter highlighter = fileContentArea.getHighlighter();
+        Highlighter.HighlightPainter matchPainter = new DefaultHighlighter.DefaultHighlightPainter(Color.YELLOW);
+        Highlighter.HighlightPainter targetPainter = new DefaultHighlighter.DefaultHighlightPainter(Color.ORANGE);
+        for (int[] span : spans) {
+            highlight(highlighter, span, pageStarts, text.length(),
+                    target != null && span[0] == target[0] && span[1] == target[1] ? targetPainter : matchPainter);
+        }
+        if (target == null) {
+            logger.info("El índice de " + file.getName() + " no coincide con el archivo; se abre sin ubicar la coincidencia");
         }
 
         fileFrame.setVisible(true); // Hacer visible la ventana del archivo.
+        int caret = target == null ? -1 : toTextOffset(target, pageStarts, text.length());
+        if (caret >= 0) {
+            fileContentArea.setCaretPosition(caret); // Posicionar el cursor en la coincidencia.
+        }
     }
 
     /**
-     * Encuentra la posición de la línea en el texto.
+     * Muestra un documento con páginas de a una página por vez, con botones para pasar a la anterior y a la
+     * siguiente. Cada página se pide a la caché de textos fuera del hilo de la interfaz, y sus vecinas se extraen
+     * por adelantado para que pasar de página no tenga que esperar la extracción.
      *
-     * @param text El texto completo.
-     * @param linePosition La posición de la línea.
-     * @return La posición del cursor en el texto.
+     * @param file      El archivo.
+     * @param pageCount La cantidad de páginas del documento.
+     * @param page      La página a mostrar primero, empezando en 1.
+     * @param text      El texto de esa página.
+     * @param target    La coincidencia elegida (página, inicio y fin), o null si el índice no la ubica.
+     * @param spans     Las coincidencias del documento a destacar, con el mismo formato.
      */
-    private int findPositionInText(String text, String linePosition) {
-        String[] lines = text.split("\n"); // Dividir el texto en líneas.
-        int lineNum = Integer.parseInt(linePosition.split(":")[1].trim()); // Obtener el número de línea.
-        int pos = 0;
-        for (int i = 0; i < lineNum - 1 && i < lines.length; i++) {
-            pos += lines[i].length() + 1; // +1 por el carácter de nueva línea.
+    private void showPagedDocument(File file, int pageCount, int page, String text, int[] target, List<int[]> spans) {
+        JFrame fileFrame = new JFrame("Archivo: " + file.getName());
+        fileFrame.setSize(800, 600); // Tamaño de la ventana.
+        fileFrame.setLayout(new BorderLayout());
+
+        JTextArea fileContentArea = new JTextArea();
+        fileContentArea.setEditable(false); // Área de texto no editable.
+        fileFrame.add(new JScrollPane(fileContentArea), BorderLayout.CENTER);
+
+        JButton previousButton = new JButton("Anterior");
+        JButton nextButton = new JButton("Siguiente");
+        JLabel pageLabel = new JLabel();
+        JPanel navigation = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        navigation.add(previousButton);
+        navigation.add(pageLabel);
+        navigation.add(nextButton);
+        fileFrame.add(navigation, BorderLayout.SOUTH);
+
+        int[] current = {page}; // Página pedida más recientemente; las respuestas de otras páginas se descartan.
+        BiConsumer<Integer, String> display = (shown, shownText) -> {
+            if (shown != current[0]) {
+                return;
+            }
+            fileContentArea.setText(shownText);
+            Highlighter highlighter = fileContentArea.getHighlighter();
+            Highlighter.HighlightPainter matchPainter = new DefaultHighlighter.DefaultHighlightPainter(Color.YELLOW);
+            Highlighter.HighlightPainter targetPainter = new DefaultHighlighter.DefaultHighlightPainter(Color.ORANGE);
+            for (int[] span : spans) {
+                if (span[0] == shown) {
+                    highlightRange(highlighter, span[1], span[2], shownText.length(),
+                            target != null && span[0] == target[0] && span[1] == target[1] ? targetPainter : matchPainter);
+                }
+            }
+            boolean onTarget = target != null && target[0] == shown && target[1] <= shownText.length();
+            fileContentArea.setCaretPosition(onTarget ? target[1] : 0);
+            pageLabel.setText("Página " + shown + " de " + pageCount);
+            previousButton.setEnabled(shown > 1);
+            nextButton.setEnabled(shown < pageCount);
+        };
+        Runnable show = () -> {
+            int requested = current[0];
+            pageLabel.setText("Página " + requested + " de " + pageCount + " (cargando...)");
+            previousButton.setEnabled(false);
+            nextButton.setEnabled(false);
+            searchExecutor.submit(() -> {
+                try {
+                    String pageText = textCache.getPage(file, requested);
+                    SwingUtilities.invokeLater(() -> display.accept(requested, pageText));
+                    prefetchPages(file, requested, pageCount);
+                } catch (IOException e) {
+                    logger.error("Error al leer la página " + requested + " de " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+                    SwingUtilities.invokeLater(() -> display.accept(requested, ""));
+                }
+            });
+        };
+        previousButton.addActionListener(e -> {
+            current[0] = Math.max(1, current[0] - 1);
+            show.run();
+        });
+        nextButton.addActionListener(e -> {
+            current[0] = Math.min(pageCount, current[0] + 1);
+            show.run();
+        });
+
+        display.accept(page, text);
+        if (target == null) {
+            logger.info("El índice de " + file.getName() + " no coincide con el archivo; se abre sin ubicar la coincidencia");
         }
-        return pos; // Devolver la posición del cursor.
+        fileFrame.setVisible(true); // Hacer visible la ventana del archivo.
     }
 
     /**
-     * Resalta el texto buscado en el componente de texto.
+     * Extrae en segundo plano las páginas vecinas de la que se está mostrando, para tenerlas en la caché de textos
+     * cuando se pase de página. Los errores solo se registran: la página se volverá a pedir al mostrarla.
      *
-     * @param textComp El componente de texto.
-     * @param pattern  El texto a resaltar.
+     * @param file      El archivo.
+     * @param page      La página que se está mostrando.
+     * @param pageCount La cantidad de páginas del documento.
      */
-    private void highlightText(JTextComponent textComp, String pattern) {
-        try {
-            Highlighter hilite = textComp.getHighlighter(); // Obtener el resaltador del componente de texto.
-            Highlighter.HighlightPainter painter = new DefaultHighlighter.DefaultHighlightPainter(Color.YELLOW); // Establecer el color de resaltado.
-            String text = textComp.getText();
-            int pos = 0;
-
-            while ((pos = text.indexOf(pattern, pos)) >= 0) {
-                hilite.addHighlight(pos, pos + pattern.length(), painter); // Resaltar el texto.
-                pos += pattern.length();
+    private void prefetchPages(File file, int page, int pageCount) {
+        for (int neighbour : new int[]{page + 1, page - 1}) {
+            if (neighbour >= 1 && neighbour <= pageCount) {
+                searchExecutor.submit(() -> {
+                    try {
+                        textCache.getPage(file, neighbour);
+                    } catch (IOException e) {
+                        logger.warn("No se pudo extraer por adelantado la página " + neighbour + " de "
+                                + file.getAbsolutePath() + ": " + e.getMessage());
+                    }
+                });
             }
+        }
+    }
+
+    /**
+     * Destaca una coincidencia si sus desplazamientos caen dentro del texto mostrado.
+     */
+    private static void highlight(Highlighter highlighter, int[] span, int[] pageStarts, int length,
+                                  Highlighter.HighlightPainter painter) {
+        int start = toTextOffset(span, pageStarts, length);
+        if (start >= 0) {
+            highlightRange(highlighter, start, start + (span[2] - span[1]), length, painter);
+        }
+    }
+
+    /**
+     * Destaca un rango de caracteres, recortado al largo del texto mostrado.
+     */
+    private static void highlightRange(Highlighter highlighter, int start, int end, int length,
+                                       Highlighter.HighlightPainter painter) {
+        if (start < 0 || start > length) {
+            return;
+        }
+        end = Math.min(length, end);
+        try {
+            highlighter.addHighlight(start, end, painter);
         } catch (BadLocationException e) {
-            e.printStackTrace(); // Manejar la excepción en caso de error.
+            logger.warn("No se pudo destacar la coincidencia en " + start + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Convierte la página y el desplazamiento de una coincidencia en un desplazamiento en el texto unido.
+     *
+     * @return El desplazamiento, o -1 si queda fuera del texto.
+     */
+    private static int toTextOffset(int[] span, int[] pageStarts, int length) {
+        int page = Math.max(1, span[0]); // Los documentos sin páginas tienen una sola entrada.
+        if (page > pageStarts.length) {
+            return -1;
         }
+        int offset = pageStarts[page - 1] + span[1];
+        return offset <= length ? offset : -1;
     }
 
     /**
@@ -399,19 +738,21 @@ public class Gui extends JFrame {
         JFileChooser fileChooser = new JFileChooser(FileSystemView.getFileSystemView().getHomeDirectory());
         fileChooser.setMultiSelectionEnabled(true); // Permitir selección múltiple de archivos.
         fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES); // Permitir selección de archivos y carpetas.
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Text, PDF, and Docx files", "txt", "pdf", "docx")); // Filtrar los tipos de archivos permitidos.
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Text, PDF, and Docx files", DocumentReaders.extensions())); // Filtrar los tipos de archivos permitidos.
         int option = fileChooser.showOpenDialog(this);
         if (option == JFileChooser.APPROVE_OPTION) {
             File[] selectedFiles = fileChooser.getSelectedFiles(); // Obtener los archivos seleccionados.
             File libraryDir = new File("src/main/biblioteca");
+            List<File> copied = new ArrayList<>();
             for (File file : selectedFiles) {
                 if (file.isDirectory()) {
-                    copyDirectory(file, libraryDir); // Copiar el contenido de la carpeta.
+                    copyDirectory(file, libraryDir, copied); // Copiar el contenido de la carpeta.
                 } else {
-                    copyFile(file, libraryDir); // Copiar el archivo.
+                    copyFile(file, libraryDir, copied); // Copiar el archivo.
                 }
             }
             loadFiles(); // Recargar la lista de archivos.
+            indexDocuments(copied); // Indexar solo los archivos copiados, sin reconstruir el índice.
         }
     }
 
@@ -420,10 +761,13 @@ public class Gui extends JFrame {
      *
      * @param sourceFile El archivo de origen.
      * @param destDir    El directorio de destino.
+     * @param copied     Recibe el archivo copiado, para indexarlo después.
      */
-    private void copyFile(File sourceFile, File destDir) {
+    private void copyFile(File sourceFile, File destDir, List<File> copied) {
         try {
-            Files.copy(sourceFile.toPath(), new File(destDir, sourceFile.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING); // Copiar el archivo.
+            File destFile = new File(destDir, sourceFile.getName());
+            Files.copy(sourceFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING); // Copiar el archivo.
+            copied.add(destFile);
         } catch (IOException e) {
             e.printStackTrace(); // Manejar la excepción en caso de error.
         }
@@ -434,15 +778,16 @@ public class Gui extends JFrame {
      *
      * @param sourceDir La carpeta de origen.
      * @param destDir   El directorio de destino.
+     * @param copied    Recibe los archivos copiados, para indexarlos después.
      */
-    private void copyDirectory(File sourceDir, File destDir) {
+    private void copyDirectory(File sourceDir, File destDir, List<File> copied) {
         File[] files = sourceDir.listFiles();
         if (files != null) {
             for (File file : files) {
                 if (file.isDirectory()) {
-                    copyDirectory(file, new File(destDir, file.getName())); // Recursivamente copiar el contenido de la carpeta.
+                    copyDirectory(file, new File(destDir, file.getName()), copied); // Recursivamente copiar el contenido de la carpeta.
                 } else {
-                    copyFile(file, destDir); // Copiar el archivo.
+                    copyFile(file, destDir, copied); // Copiar el archivo.
                 }
             }
         }
@@ -478,11 +823,40 @@ public class Gui extends JFrame {
                     deleteFileOrDirectory(childFile); // Recursivamente eliminar el contenido de la carpeta.
                 }
             }
+        } else {
+            resultModel.removeFile(file); // Quitar sus resultados de la lista.
+            textCache.remove(file); // Olvidar su texto extraído.
+            index.removeDocument(file.getAbsolutePath()); // Quitar sus ocurrencias del índice.
         }
-        this.biblioteca.delete(file); // Eliminar el archivo o carpeta de la biblioteca.
         file.delete(); // Eliminar el archivo o carpeta del sistema de archivos.
     }
 
+    /**
+     * Indexa archivos de la biblioteca fuera del hilo de la interfaz, y al terminar recarga la lista de archivos.
+     * Si un archivo ya estaba indexado (por ejemplo, al reemplazarlo), primero se quitan sus ocurrencias anteriores
+     * para no duplicarlas; los de un tipo que no se sabe leer se ignoran.
+     *
+     * @param files Los archivos a indexar.
+     */
+    private void indexDocuments(List<File> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        searchExecutor.submit(() -> {
+            for (File file : files) {
+                index.addDocument(file);
+            }
+            SwingUtilities.invokeLater(this::loadFiles);
+        });
+    }
+
+    /**
+     * Guarda una instantánea del índice si cambió desde que se cargó o se guardó por última vez.
+     */
+    private void saveIndexIfDirty() {
+        index.saveIfDirty(IndexSnapshot.DEFAULT_PATH);
+    }
+
     /**
      * Método principal para ejecutar la aplicación.
      *
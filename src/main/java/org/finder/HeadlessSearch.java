@@ -0,0 +1,247 @@
+package org.finder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.finder.FileReaders.DocumentReaders;
+import org.finder.Index.LibraryIndex;
+import org.finder.Query.Bm25Ranker;
+import org.finder.Results.ResultPageModel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Modo sin interfaz gráfica: indexa una carpeta, lee consultas (una por línea) de un archivo o de la entrada
+ * estándar y escribe los resultados de cada una como una línea JSON. Usa el mismo índice que la interfaz
+ * ({@link LibraryIndex}), con su caché de búsquedas, sus consultas booleanas y su orden por relevancia.
+ *
+ * <p>Al terminar escribe en la salida de errores la velocidad de indexación, la cantidad de consultas por segundo,
+ * los percentiles de la latencia de las consultas y las estadísticas de la caché. Se usa desde {@link Main} cuando recibe argumentos:
+ * <pre>
+ *   java org.finder.Main --index carpeta [--queries consultas.txt] [--output resultados.jsonl]
+ *                        [--ranked] [--limit 10] [--snapshot .textfinder/index.bin]
+ * </pre>
+ * Las líneas vacías y las que empiezan con {@code #} en el archivo de consultas se ignoran. Para medir sin la caché
+ * de búsquedas, se desactiva con {@code -Dtextfinder.search.cacheResults=0}.
+ */
+public class HeadlessSearch {
+    private static final Logger logger = LogManager.getLogger(HeadlessSearch.class);
+
+    private static final String USAGE = "Uso: --index <carpeta> [--queries <archivo>] [--output <archivo>]"
+            + " [--ranked] [--limit <n>] [--snapshot <archivo>]";
+
+    private Path directory;
+    private Path queries; // null para leer la entrada estándar.
+    private Path output; // null para escribir en la salida estándar.
+    private Path snapshot; // null para indexar sin instantánea.
+    private boolean ranked = false;
+    private int limit = 10;
+
+    /**
+     * Ejecuta el modo sin interfaz.
+     *
+     * @param args Los argumentos de la línea de comandos.
+     * @param in La entrada de las consultas si no se indica {@code --queries}.
+     * @param out La salida de los resultados si no se indica {@code --output}.
+     * @param err La salida del resumen y de los errores.
+     * @return El código de salida: 0 si terminó, 1 si hubo un error y 2 si los argumentos son inválidos.
+     */
+    public static int run(String[] args, InputStream in, OutputStream out, PrintStream err) {
+        HeadlessSearch search = new HeadlessSearch();
+        try {
+            search.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+        try {
+            search.execute(in, out, err);
+            return 0;
+        } catch (IOException e) {
+            logger.error("Error en la búsqueda sin interfaz: " + e.getMessage(), e);
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--index" -> directory = Path.of(value(args, ++i));
+                case "--queries" -> queries = Path.of(value(args, ++i));
+                case "--output" -> output = Path.of(value(args, ++i));
+                case "--snapshot" -> snapshot = Path.of(value(args, ++i));
+                case "--ranked" -> ranked = true;
+                case "--limit" -> {
+                    try {
+                        limit = Math.max(0, Integer.parseInt(value(args, ++i)));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("--limit necesita un número: " + args[i]);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+        if (directory == null) {
+            throw new IllegalArgumentException("Falta la carpeta a indexar (--index)");
+        }
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("No es una carpeta: " + directory);
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Falta el valor de " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private void execute(InputStream in, OutputStream out, PrintStream err) throws IOException {
+        List<File> files = DocumentReaders.supportedFiles(directory.toFile());
+        long bytes = 0;
+        for (File file : files) {
+            bytes += file.length();
+        }
+        long start = System.nanoTime();
+        LibraryIndex index = LibraryIndex.open(files, snapshot);
+        long indexNanos = System.nanoTime() - start;
+        long tokens = index.tokenCount();
+        double indexSeconds = Math.max(indexNanos, 1) / 1e9;
+        err.printf("Indexación: %d archivos, %d palabras, %.1f MB en %.0f ms (%.0f palabras/s, %.1f MB/s)%n",
+                files.size(), tokens, bytes / 1e6, indexNanos / 1e6, tokens / indexSeconds, bytes / 1e6 / indexSeconds);
+
+        long[] latencies = new long[64];
+        int count = 0;
+        long totalResults = 0;
+        long queriesStart = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(queries == null
+                ? new InputStreamReader(in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(queries, StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(output == null
+                     ? new OutputStreamWriter(out, StandardCharsets.UTF_8)
+                     : Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            String query;
+            while ((query = reader.readLine()) != null) {
+                query = query.strip();
+                if (query.isEmpty() || query.startsWith("#")) {
+                    continue;
+                }
+                StringBuilder line = new StringBuilder("{\"query\":").append(quote(query));
+                long queryStart = System.nanoTime();
+                try {
+                    List<String> results = ranked
+                            ? index.searchRanked(query, Bm25Ranker.configuredTopK())
+                            : index.searchString(query);
+                    long nanos = System.nanoTime() - queryStart;
+                    totalResults += results.size();
+                    line.append(",\"total\":").append(results.size());
+                    line.append(",\"millis\":").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+                    appendHits(line, results);
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = nanos;
+                } catch (IllegalArgumentException e) {
+                    line.append(",\"error\":").append(quote(e.getMessage()));
+                }
+                writer.write(line.append("}\n").toString());
+            }
+        }
+        long queriesNanos = System.nanoTime() - queriesStart;
+
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        err.printf("Consultas: %d en %.0f ms (%.1f consultas/s), %d resultados%n",
+                count, queriesNanos / 1e6, count / (Math.max(queriesNanos, 1) / 1e9), totalResults);
+        if (count > 0) {
+            err.printf("Latencia (ms): p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, máx %.3f%n",
+                    percentile(sorted, 50) / 1e6, percentile(sorted, 90) / 1e6, percentile(sorted, 99) / 1e6,
+                    percentile(sorted, 99.9) / 1e6, sorted[count - 1] / 1e6);
+        }
+        err.println("Caché de búsquedas: " + index.getQueryCache());
+    }
+
+    /**
+     * Agrega los primeros {@link #limit} resultados de una consulta como el arreglo {@code "hits"}.
+     */
+    private void appendHits(StringBuilder line, List<String> results) {
+        line.append(",\"hits\":[");
+        for (int i = 0; i < Math.min(limit, results.size()); i++) {
+            String[] parts = ResultPageModel.fieldsOf(results.get(i));
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append("{\"path\":").append(quote(parts[0]));
+            line.append(",\"position\":").append(number(parts[1]));
+            if (parts[2] != null) {
+                line.append(",\"page\":").append(number(parts[2]));
+            }
+            line.append(",\"line\":").append(number(parts[3]));
+            line.append(",\"linePosition\":").append(number(parts[4]));
+            line.append(",\"snippet\":").append(quote(parts[5])).append('}');
+        }
+        line.append(']');
+    }
+
+    /**
+     * Lee el número de una parte "Etiqueta:N" de un resultado.
+     *
+     * @return El número, o -1 si la parte no tiene uno.
+     */
+    private static int number(String part) {
+        try {
+            return Integer.parseInt(part.substring(part.indexOf(':') + 1).trim());
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Devuelve el percentil de una lista ordenada de latencias, por el método del rango más cercano.
+     */
+    static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+    }
+
+    /**
+     * Devuelve un texto como cadena JSON, entre comillas y con los caracteres especiales escapados.
+     */
+    static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,483 @@
+package org.finder.Index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.finder.Tree.AVLTree;
+import org.finder.Tree.DocumentTable;
+import org.finder.Tree.TermDictionary;
+import org.finder.Tree.TreeNode;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Guarda el índice completo (diccionario de palabras y todas sus ocurrencias) en un archivo binario
+ * versionado y lo recarga mediante un archivo mapeado en memoria, evitando volver a extraer el texto
+ * de cada PDF y DOCX al iniciar.
+ *
+ * <p>Formato (enteros en varint salvo el encabezado):
+ * <pre>
+ * encabezado: magic (int) | versión (int) | largo del contenido (long) | CRC32 del contenido (long)
+ * archivos:   cantidad | por archivo: ruta, tamaño (long), fecha de modificación (long)
+ * palabras:   cantidad | por palabra (en orden): prefijo compartido con la anterior, sufijo
+ * formas:     cantidad | por forma original: texto, índice de su palabra normalizada
+ * documentos: cantidad | por documento: índice de su archivo, cantidad de tokens |
+ *             por token: forma, diferencia de posición, de línea y de desplazamiento (zigzag), posición en línea |
+ *             cantidad de tramos de página | por tramo: diferencia de la primera palabra, número de página
+ * ocurrencias: por palabra: cantidad | por ocurrencia: diferencia de documento, índice del token
+ *             (diferencia con el anterior si es del mismo documento)
+ * </pre>
+ * El contenido es el mismo que tiene en memoria la {@link DocumentTable} del árbol, por lo que la carga
+ * llena directamente los arreglos de enteros de cada documento y de cada nodo.
+ * Una instantánea cuyo CRC, versión o lista de documentos no coincide con la biblioteca actual
+ * se considera inválida y {@link #load} devuelve null para que el índice se reconstruya.
+ */
+public class IndexSnapshot {
+    private static final Logger logger = LogManager.getLogger(IndexSnapshot.class);
+
+    private static final int MAGIC = 0x54464958; // "TFIX"
+    private static final int VERSION = 5;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+    /**
+     * Ruta por defecto de la instantánea del índice de la biblioteca.
+     */
+    public static final Path DEFAULT_PATH = Path.of(".textfinder", "index.bin");
+
+    private IndexSnapshot() {
+    }
+
+    /**
+     * Escribe el árbol en disco. Primero se escribe un archivo temporal que luego reemplaza al anterior,
+     * para que una escritura interrumpida nunca deje una instantánea a medias.
+     *
+     * @param tree El árbol a guardar.
+     * @param stamps El tamaño y la fecha de modificación que tenía cada archivo indexado en el árbol cuando se leyó,
+     *               por ruta absoluta (incluidos los que no tienen palabras).
+     * @param snapshot La ruta del archivo de la instantánea.
+     */
+    public static void save(AVLTree tree, Map<String, long[]> stamps, Path snapshot) {
+        long start = System.nanoTime();
+        try {
+            byte[] payload = encode(tree, stamps);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            Path parent = snapshot.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "index", ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putLong(payload.length).putLong(crc.getValue());
+                out.write(header.array());
+                out.write(payload);
+            }
+            try {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.info("Instantánea del índice guardada (" + (HEADER_SIZE + payload.length) + " bytes) en "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException e) {
+            logger.error("Error al guardar la instantánea del índice: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Carga el árbol desde una instantánea mapeada en memoria.
+     *
+     * @param snapshot La ruta del archivo de la instantánea.
+     * @param files Los archivos que hay actualmente en la biblioteca.
+     * @return El árbol recargado, o null si la instantánea no existe, está dañada, es de otra versión
+     *         o no corresponde a los archivos actuales (se agregó, quitó o modificó alguno).
+     */
+    public static AVLTree load(Path snapshot, List<File> files) {
+        return load(snapshot, files, new HashMap<>());
+    }
+
+    /**
+     * Carga el árbol desde una instantánea mapeada en memoria y devuelve también los datos guardados de cada archivo.
+     *
+     * @param snapshot La ruta del archivo de la instantánea.
+     * @param files Los archivos que hay actualmente en la biblioteca.
+     * @param stamps Recibe el tamaño y la fecha de modificación guardados de cada archivo, si la instantánea es vigente.
+     * @return El árbol recargado, o null si la instantánea no es vigente (ver {@link #load(Path, List)}).
+     */
+    public static AVLTree load(Path snapshot, List<File> files, Map<String, long[]> stamps) {
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                logger.warn("Instantánea del índice truncada; se reconstruirá");
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.warn("Instantánea del índice de otro formato o versión; se reconstruirá");
+                return null;
+            }
+            long length = buffer.getLong();
+            long expectedCrc = buffer.getLong();
+            if (length != channel.size() - HEADER_SIZE) {
+                logger.warn("Instantánea del índice truncada; se reconstruirá");
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice());
+            if (crc.getValue() != expectedCrc) {
+                logger.warn("Instantánea del índice dañada (CRC distinto); se reconstruirá");
+                return null;
+            }
+            AVLTree tree = decode(buffer, files, stamps);
+            if (tree != null) {
+                logger.info("Índice recargado desde la instantánea en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+            return tree;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("No se pudo leer la instantánea del índice; se reconstruirá: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Serializa el árbol y la lista de documentos al formato descrito en la clase.
+     */
+    private static byte[] encode(AVLTree tree, Map<String, long[]> fileStamps) {
+        List<TreeNode> nodes = tree.nodesInOrder();
+        DocumentTable documents = tree.getDocuments();
+
+        // Archivos indexados (incluidos los que no tienen palabras) y los documentos del árbol que no estén entre ellos.
+        Map<String, Integer> stamps = new LinkedHashMap<>();
+        for (String path : fileStamps.keySet()) {
+            stamps.putIfAbsent(path, stamps.size());
+        }
+        int[] liveDocuments = new int[documents.liveCount()];
+        int[] documentIndex = new int[documents.size()];
+        int live = 0;
+        for (int doc = 0; doc < documents.size(); doc++) {
+            if (documents.isLive(doc)) {
+                stamps.putIfAbsent(documents.path(doc), stamps.size());
+                documentIndex[doc] = live;
+                liveDocuments[live++] = doc;
+            }
+        }
+
+        VarIntWriter out = new VarIntWriter();
+        out.writeInt(stamps.size());
+        for (String path : stamps.keySet()) {
+            long[] stamp = fileStamps.get(path);
+            out.writeString(path);
+            // Un documento sin datos guardados nunca coincide con su archivo, así que invalida la instantánea.
+            out.writeLong(stamp == null ? -1 : stamp[0]);
+            out.writeLong(stamp == null ? -1 : stamp[1]);
+        }
+
+        int[] wordIndex = new int[tree.getTerms().size()]; // Posición en orden alfabético de cada ID de palabra.
+        Arrays.fill(wordIndex, -1);
+        out.writeInt(nodes.size());
+        String previousWord = "";
+        for (int w = 0; w < nodes.size(); w++) {
+            TreeNode node = nodes.get(w);
+            String word = node.getWord();
+            wordIndex[node.getTermId()] = w;
+            int shared = sharedPrefix(previousWord, word);
+            out.writeInt(shared);
+            out.writeString(word.substring(shared));
+            previousWord = word;
+        }
+
+        // Solo las formas originales que usan los documentos vigentes, renumeradas.
+        int[] surfaceIndex = new int[documents.surfaceCount()];
+        Arrays.fill(surfaceIndex, -1);
+        List<Integer> usedSurfaces = new ArrayList<>();
+        for (int doc : liveDocuments) {
+            for (int i = 0; i < documents.tokenCount(doc); i++) {
+                int surface = documents.surfaceAt(doc, i);
+                if (surfaceIndex[surface] < 0) {
+                    surfaceIndex[surface] = usedSurfaces.size();
+                    usedSurfaces.add(surface);
+                }
+            }
+        }
+        out.writeInt(usedSurfaces.size());
+        for (int surface : usedSurfaces) {
+            int word = wordIndex[documents.surfaceTerm(surface)];
+            if (word < 0) {
+                throw new IllegalStateException("La forma '" + documents.surface(surface) + "' no tiene nodo en el árbol");
+            }
+            out.writeString(documents.surface(surface));
+            out.writeInt(word);
+        }
+
+        out.writeInt(liveDocuments.length);
+        for (int doc : liveDocuments) {
+            out.writeInt(stamps.get(documents.path(doc)));
+            int count = documents.tokenCount(doc);
+            out.writeInt(count);
+            int previousPosition = 0;
+            int previousLine = 0;
+            int previousOffset = 0;
+            for (int i = 0; i < count; i++) {
+                int position = documents.position(doc, i);
+                int line = documents.line(doc, i);
+                int offset = documents.offset(doc, i);
+                out.writeInt(surfaceIndex[documents.surfaceAt(doc, i)]);
+                out.writeInt(zigZag(position - previousPosition));
+                out.writeInt(zigZag(line - previousLine));
+                out.writeInt(zigZag(offset - previousOffset));
+                out.writeInt(documents.linePosition(doc, i));
+                previousPosition = position;
+                previousLine = line;
+                previousOffset = offset;
+            }
+            int runs = documents.pageRunCount(doc);
+            out.writeInt(runs);
+            int previousStart = 0;
+            for (int r = 0; r < runs; r++) {
+                int start = documents.pageRunStart(doc, r);
+                out.writeInt(start - previousStart);
+                out.writeInt(documents.pageRunPage(doc, r));
+                previousStart = start;
+            }
+        }
+
+        // Ocurrencias de cada palabra: ya vienen ordenadas por (documento, índice), así que se guardan como diferencias.
+        for (TreeNode node : nodes) {
+            int count = node.getOccurrenceCount();
+            out.writeInt(count);
+            int previousDoc = 0;
+            int previousOrdinal = 0;
+            for (int i = 0; i < count; i++) {
+                int doc = documentIndex[node.getPostingDocument(i)];
+                int ordinal = node.getPostingOrdinal(i);
+                out.writeInt(doc - previousDoc);
+                out.writeInt(doc == previousDoc && i > 0 ? ordinal - previousOrdinal : ordinal);
+                previousDoc = doc;
+                previousOrdinal = ordinal;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reconstruye el árbol desde el contenido de la instantánea, o devuelve null si no corresponde a los archivos dados.
+     */
+    private static AVLTree decode(ByteBuffer in, List<File> files, Map<String, long[]> stamps) {
+        int stampCount = readInt(in);
+        Map<String, File> current = new HashMap<>();
+        for (File file : files) {
+            current.put(file.getAbsolutePath(), file);
+        }
+        String[] paths = new String[stampCount];
+        Map<String, long[]> stored = new HashMap<>();
+        for (int i = 0; i < stampCount; i++) {
+            paths[i] = readString(in);
+            long size = readLong(in);
+            long modified = readLong(in);
+            File file = current.remove(paths[i]);
+            if (file == null || file.length() != size || file.lastModified() != modified) {
+                logger.info("El archivo " + paths[i] + " se eliminó o cambió desde la última instantánea; se reconstruirá el índice");
+                return null;
+            }
+            stored.put(paths[i], new long[]{size, modified});
+        }
+        if (!current.isEmpty()) {
+            logger.info("La biblioteca tiene archivos que no están en la instantánea, por ejemplo "
+                    + current.keySet().iterator().next() + "; se reconstruirá el índice");
+            return null;
+        }
+
+        // Las palabras se guardan en orden alfabético, así que su ID en el diccionario es su posición.
+        int wordCount = readInt(in);
+        TermDictionary terms = new TermDictionary();
+        String previousWord = "";
+        for (int w = 0; w < wordCount; w++) {
+            int shared = readInt(in);
+            previousWord = previousWord.substring(0, shared) + readString(in);
+            terms.intern(previousWord);
+        }
+
+        DocumentTable documents = new DocumentTable();
+        int surfaceCount = readInt(in);
+        for (int i = 0; i < surfaceCount; i++) {
+            String original = readString(in);
+            int term = readInt(in);
+            if (term >= wordCount) {
+                throw new IllegalStateException("palabra fuera de rango: " + term);
+            }
+            documents.internSurface(original, term);
+        }
+
+        int documentCount = readInt(in);
+        for (int doc = 0; doc < documentCount; doc++) {
+            String path = paths[readInt(in)];
+            int count = readInt(in);
+            int[] surface = new int[count];
+            int[] position = new int[count];
+            int[] line = new int[count];
+            int[] linePosition = new int[count];
+            int[] offset = new int[count];
+            int previousPosition = 0;
+            int previousLine = 0;
+            int previousOffset = 0;
+            for (int i = 0; i < count; i++) {
+                surface[i] = readInt(in);
+                previousPosition += unZigZag(readInt(in));
+                previousLine += unZigZag(readInt(in));
+                previousOffset += unZigZag(readInt(in));
+                position[i] = previousPosition;
+                line[i] = previousLine;
+                offset[i] = previousOffset;
+                linePosition[i] = readInt(in);
+            }
+            int runs = readInt(in);
+            int[] pageFirst = new int[runs];
+            int[] pageNumber = new int[runs];
+            int previousStart = 0;
+            for (int r = 0; r < runs; r++) {
+                previousStart += readInt(in);
+                pageFirst[r] = previousStart;
+                pageNumber[r] = readInt(in);
+            }
+            documents.load(path, surface, position, line, linePosition, offset, pageFirst, pageNumber);
+        }
+
+        List<TreeNode> nodes = new ArrayList<>(wordCount);
+        for (int w = 0; w < wordCount; w++) {
+            TreeNode node = new TreeNode(terms.word(w), w, documents);
+            int count = readInt(in);
+            int[] postingDocuments = new int[count];
+            int[] postingOrdinals = new int[count];
+            int previousDoc = 0;
+            int previousOrdinal = 0;
+            for (int i = 0; i < count; i++) {
+                int doc = previousDoc + readInt(in);
+                int ordinal = readInt(in);
+                if (doc == previousDoc && i > 0) {
+                    ordinal += previousOrdinal;
+                }
+                postingDocuments[i] = doc;
+                postingOrdinals[i] = ordinal;
+                previousDoc = doc;
+                previousOrdinal = ordinal;
+            }
+            node.setPostings(postingDocuments, postingOrdinals);
+            nodes.add(node);
+        }
+        stamps.putAll(stored);
+        return AVLTree.fromSortedNodes(documents, terms, nodes);
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int sharedPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        // No partir un par sustituto UTF-16 entre el prefijo y el sufijo.
+        if (i > 0 && Character.isHighSurrogate(a.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static long readLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IllegalStateException("varint demasiado largo");
+            }
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int readInt(ByteBuffer in) {
+        long value = readLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalStateException("entero fuera de rango: " + value);
+        }
+        return (int) value;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[readInt(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Búfer de escritura en memoria con enteros de longitud variable (7 bits por byte).
+     */
+    private static final class VarIntWriter {
+        private byte[] buffer = new byte[1 << 16];
+        private int size;
+
+        void writeLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            writeLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, size + extra)];
+                System.arraycopy(buffer, 0, grown, 0, size);
+                buffer = grown;
+            }
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[size];
+            System.arraycopy(buffer, 0, result, 0, size);
+            return result;
+        }
+    }
+}
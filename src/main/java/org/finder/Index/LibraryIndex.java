@@ -0,0 +1,413 @@
+package org.finder.Index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.finder.FileReaders.DocumentReaders;
+import org.finder.Query.BooleanSearch;
+import org.finder.Query.Bm25Ranker;
+import org.finder.Query.QueryParser;
+import org.finder.Tree.AVLTree;
+import org.finder.Tree.DocumentTable;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice vivo de la biblioteca. Envuelve el árbol AVL con un candado de lectura/escritura para que
+ * las búsquedas (hilo de la interfaz) y la reindexación en segundo plano (vigilante de la carpeta)
+ * puedan convivir: varias búsquedas pueden ejecutarse a la vez, y agregar o quitar un documento
+ * las bloquea solo mientras se modifica el árbol.
+ *
+ * <p>Los resultados de las búsquedas se guardan en una {@link QueryCache}. Cada cambio de documentos incrementa
+ * la generación del índice, lo que invalida la caché sin tener que avisarle.
+ */
+public class LibraryIndex {
+    private static final Logger logger = LogManager.getLogger(LibraryIndex.class);
+
+    private final AVLTree tree;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, long[]> stamps = new HashMap<>(); // Tamaño y fecha de modificación de cada documento indexado.
+    private volatile boolean dirty = false; // Indica si el índice cambió desde la última instantánea.
+    private volatile long generation = 0; // Se incrementa con cada documento agregado o quitado.
+    private final QueryCache cache = new QueryCache(QueryCache.configuredCapacity());
+
+    /**
+     * Crea el índice a partir de un árbol ya construido con los archivos dados. Los archivos se registran con su
+     * tamaño y fecha de modificación actuales, así que no deben haber cambiado desde que se leyeron; si pudieron
+     * cambiar, conviene {@link #LibraryIndex(AVLTree, Map)} con los datos tomados antes de leerlos.
+     *
+     * @param tree El árbol con las palabras de los archivos.
+     * @param files Los archivos que contiene el árbol.
+     */
+    public LibraryIndex(AVLTree tree, List<File> files) {
+        this(tree, stampsOf(files));
+    }
+
+    /**
+     * Crea el índice a partir de un árbol ya construido y del tamaño y la fecha de modificación que tenía cada
+     * archivo cuando se leyó.
+     *
+     * @param tree El árbol con las palabras de los archivos.
+     * @param stamps El tamaño y la fecha de modificación de cada archivo indexado, por ruta absoluta.
+     */
+    public LibraryIndex(AVLTree tree, Map<String, long[]> stamps) {
+        this.tree = tree;
+        this.stamps.putAll(stamps);
+    }
+
+    /**
+     * Abre el índice de una lista de archivos. Si hay una instantánea vigente se recarga en lugar de volver a leer
+     * los archivos; si no, los archivos se leen en paralelo con la cantidad de hilos de
+     * {@link ParallelIndexer#configuredWorkers()} y se guarda una instantánea nueva para la próxima vez.
+     *
+     * @param files Los archivos a indexar.
+     * @param snapshot La ruta de la instantánea, o null para indexar siempre sin guardarla.
+     * @return El índice.
+     */
+    public static LibraryIndex open(List<File> files, Path snapshot) {
+        if (snapshot != null) {
+            Map<String, long[]> stored = new HashMap<>();
+            AVLTree snapshotTree = IndexSnapshot.load(snapshot, files, stored);
+            if (snapshotTree != null) {
+                return new LibraryIndex(snapshotTree, stored);
+            }
+        }
+
+        // Los datos de cada archivo se toman antes de leerlo: si cambia mientras se indexa, se reindexará.
+        Map<String, long[]> stamps = stampsOf(files);
+        AVLTree newTree = new AVLTree();
+        ParallelIndexer indexer = new ParallelIndexer(ParallelIndexer.configuredWorkers());
+        long start = System.nanoTime();
+        indexer.indexFiles(files, newTree);
+        newTree.trimToSize();
+        logger.info("Indexados " + files.size() + " archivos con " + indexer.getWorkers() + " hilos en "
+                + (System.nanoTime() - start) / 1_000_000 + " ms ("
+                + String.format("%.1f", newTree.estimatedBytesPerToken()) + " bytes por palabra)");
+        if (snapshot != null) {
+            IndexSnapshot.save(newTree, stamps, snapshot);
+        }
+        return new LibraryIndex(newTree, stamps);
+    }
+
+    /**
+     * Devuelve la cantidad de palabras de los documentos indexados.
+     *
+     * @return La cantidad de palabras.
+     */
+    public long tokenCount() {
+        lock.readLock().lock();
+        try {
+            DocumentTable documents = tree.getDocuments();
+            long count = 0;
+            for (String path : stamps.keySet()) {
+                int document = documents.idOf(path);
+                if (document >= 0) {
+                    count += documents.tokenCount(document);
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca una palabra o frase en el índice. Si el texto usa comillas, paréntesis o los operadores
+     * AND, OR y NOT se evalúa como consulta booleana (ver {@link QueryParser}).
+     *
+     * @param input La palabra, frase o consulta que se desea buscar.
+     * @return Los resultados con el formato de {@link AVLTree#searchString}.
+     * @throws IllegalArgumentException Si la consulta booleana está mal formada.
+     */
+    public List<String> searchString(String input) {
+        lock.readLock().lock();
+        try {
+            String key = QueryCache.key("texto", input);
+            List<String> cached = cache.get(key, generation);
+            if (cached != null) {
+                return new ArrayList<>(cached);
+            }
+            List<String> results = QueryParser.isBooleanQuery(input)
+                    ? BooleanSearch.search(tree, input)
+                    : tree.searchString(input);
+            cache.put(key, generation, results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Igual que {@link #searchString(String)}, pero entrega los resultados de a partes para mostrarlos a medida
+     * que se encuentran. Pensado para buscar fuera del hilo de la interfaz: si el hilo se interrumpe (por ejemplo
+     * porque el usuario siguió escribiendo), la búsqueda se abandona.
+     *
+     * @param input La palabra, frase o consulta que se desea buscar.
+     * @param chunkSize La cantidad de resultados de cada parte.
+     * @param consumer Recibe cada parte, en orden; se llama con el candado de lectura tomado, así que no debe demorarse.
+     * @throws IllegalArgumentException Si la consulta booleana está mal formada.
+     * @throws CancellationException Si el hilo se interrumpió durante la búsqueda.
+     */
+    public void searchString(String input, int chunkSize, Consumer<List<String>> consumer) {
+        lock.readLock().lock();
+        try {
+            String key = QueryCache.key("texto", input);
+            List<String> cached = cache.get(key, generation);
+            if (cached != null) {
+                for (int from = 0; from < cached.size(); from += chunkSize) {
+                    consumer.accept(new ArrayList<>(cached.subList(from, (int) Math.min(cached.size(), (long) from + chunkSize))));
+                }
+                return;
+            }
+            // Se guardan las partes a medida que se entregan; si la búsqueda se cancela no llega a la caché.
+            List<String> results = new ArrayList<>();
+            Consumer<List<String>> collector = chunk -> {
+                results.addAll(chunk);
+                consumer.accept(chunk);
+            };
+            if (QueryParser.isBooleanQuery(input)) {
+                BooleanSearch.search(tree, input, chunkSize, collector);
+            } else {
+                tree.searchString(input, chunkSize, collector);
+            }
+            cache.put(key, generation, results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca en el índice y devuelve solo los documentos más relevantes según BM25, uno por documento
+     * y de mayor a menor relevancia, con su primera coincidencia destacada.
+     *
+     * @param input La palabra, frase o consulta que se desea buscar.
+     * @param limit La cantidad máxima de documentos a devolver.
+     * @return Los resultados con el formato de {@link AVLTree#searchString}.
+     * @throws IllegalArgumentException Si la consulta booleana está mal formada.
+     */
+    public List<String> searchRanked(String input, int limit) {
+        lock.readLock().lock();
+        try {
+            String key = QueryCache.key("relevancia:" + limit, input);
+            List<String> cached = cache.get(key, generation);
+            if (cached != null) {
+                return new ArrayList<>(cached);
+            }
+            List<String> results = new ArrayList<>();
+            for (Bm25Ranker.ScoredDocument scored : new Bm25Ranker(tree, limit).rank(input)) {
+                results.add(tree.formatResult(scored.getOccurrence(), scored.getLength()));
+            }
+            cache.put(key, generation, results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa un documento. Si ya estaba indexado, primero se quitan sus ocurrencias anteriores.
+     * La lectura del archivo se hace en un árbol parcial fuera del candado, así las búsquedas
+     * solo esperan la fusión y no la extracción del texto. Los archivos de un tipo que no se sabe leer se
+     * ignoran: no se guarda su sello, que haría rechazar la instantánea al volver a abrir la biblioteca.
+     *
+     * @param file El documento a indexar.
+     */
+    public void addDocument(File file) {
+        if (!DocumentReaders.isSupported(file.getName())) {
+            return;
+        }
+        AVLTree partial = new AVLTree();
+        long[] stamp = stampOf(file);
+        ParallelIndexer.indexFile(partial, file);
+        lock.writeLock().lock();
+        try {
+            tree.removeDocument(file.getAbsolutePath());
+            tree.merge(partial);
+            stamps.put(file.getAbsolutePath(), stamp);
+            dirty = true;
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa un documento solo si es nuevo o cambió su tamaño o fecha de modificación desde que se indexó.
+     *
+     * @param file El documento a revisar.
+     * @return true si el documento se volvió a indexar.
+     */
+    public boolean refreshDocument(File file) {
+        long[] previous;
+        lock.readLock().lock();
+        try {
+            previous = stamps.get(file.getAbsolutePath());
+        } finally {
+            lock.readLock().unlock();
+        }
+        long[] current = stampOf(file);
+        if (previous != null && previous[0] == current[0] && previous[1] == current[1]) {
+            return false;
+        }
+        addDocument(file);
+        return true;
+    }
+
+    /**
+     * Quita un documento del índice.
+     *
+     * @param path La ruta del documento.
+     * @return true si el documento estaba indexado.
+     */
+    public boolean removeDocument(String path) {
+        lock.writeLock().lock();
+        try {
+            boolean known = stamps.remove(path) != null;
+            int removed = tree.removeDocument(path);
+            if (known || removed > 0) {
+                dirty = true;
+                generation++;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita todos los documentos cuya ruta está dentro de una carpeta.
+     *
+     * @param directory La ruta de la carpeta.
+     * @return La cantidad de documentos quitados.
+     */
+    public int removeDirectory(String directory) {
+        String prefix = directory.endsWith(File.separator) ? directory : directory + File.separator;
+        lock.writeLock().lock();
+        try {
+            List<String> inside = stamps.keySet().stream().filter(path -> path.startsWith(prefix)).toList();
+            for (String path : inside) {
+                stamps.remove(path);
+                tree.removeDocument(path);
+            }
+            if (!inside.isEmpty()) {
+                dirty = true;
+                generation++;
+            }
+            return inside.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ubica una coincidencia en el texto de su documento para mostrarla en el visor, con los desplazamientos
+     * guardados en el índice. Si el archivo cambió desde que se indexó, los desplazamientos ya no sirven y
+     * no se devuelven.
+     *
+     * @param path La ruta del documento.
+     * @param position La posición general de la primera palabra de la coincidencia.
+     * @param length La cantidad de palabras de la coincidencia.
+     * @return La página (0 si el documento no tiene páginas), el primer carácter y el carácter siguiente al último
+     *         de la coincidencia, o null si el documento no está indexado, cambió o no tiene esa posición.
+     */
+    public int[] locate(String path, int position, int length) {
+        File file = new File(path);
+        lock.readLock().lock();
+        try {
+            long[] stamp = stamps.get(path);
+            if (stamp == null || stamp[0] != file.length() || stamp[1] != file.lastModified()) {
+                return null;
+            }
+            DocumentTable documents = tree.getDocuments();
+            int document = documents.idOf(path);
+            int first = document < 0 ? -1 : documents.ordinalOf(document, position);
+            if (first < 0 || documents.offset(document, first) < 0) {
+                return null;
+            }
+            int page = documents.page(document, first);
+            // La última palabra de la coincidencia que está en la misma página que la primera.
+            int last = first;
+            while (last + 1 < first + length && last + 1 < documents.tokenCount(document)
+                    && documents.page(document, last + 1) == page) {
+                last++;
+            }
+            int start = documents.offset(document, first);
+            int end = documents.offset(document, last) + documents.originalWord(document, last).length();
+            return new int[]{page, start, end};
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve las rutas de los documentos indexados.
+     *
+     * @return Una copia de las rutas absolutas de los documentos.
+     */
+    public List<String> indexedPaths() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(stamps.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve la generación del índice, que se incrementa cada vez que se agrega o se quita un documento.
+     *
+     * @return La generación actual.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Devuelve la caché de búsquedas, por ejemplo para consultar sus estadísticas de aciertos y fallos.
+     *
+     * @return La caché de búsquedas.
+     */
+    public QueryCache getQueryCache() {
+        return cache;
+    }
+
+    /**
+     * Guarda una instantánea del índice si cambió desde que se cargó o se guardó por última vez. Se guardan solo
+     * los documentos indexados, con el tamaño y la fecha que tenían al indexarse: un archivo agregado que todavía
+     * no se indexó queda fuera, y la instantánea no se usará mientras exista.
+     *
+     * @param snapshot La ruta del archivo de la instantánea.
+     */
+    public void saveIfDirty(Path snapshot) {
+        lock.readLock().lock();
+        try {
+            if (dirty) {
+                IndexSnapshot.save(tree, stamps, snapshot);
+                dirty = false;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, long[]> stampsOf(List<File> files) {
+        Map<String, long[]> stamps = new HashMap<>();
+        for (File file : files) {
+            stamps.put(file.getAbsolutePath(), stampOf(file));
+        }
+        return stamps;
+    }
+
+    private static long[] stampOf(File file) {
+        return new long[]{file.length(), file.lastModified()};
+    }
+}
@@ -0,0 +1,267 @@
+package org.finder.Index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.finder.FileReaders.DocumentReaders;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Vigila la carpeta de la biblioteca y sus subcarpetas con un {@link WatchService} y mantiene el índice al día.
+ * Los eventos de creación, modificación y eliminación se acumulan y, cuando pasa un intervalo sin eventos nuevos,
+ * se reindexan en un hilo de fondo solo los archivos afectados. Así una copia de muchos archivos o un archivo
+ * que se escribe en varias partes produce una sola reindexación por archivo.
+ */
+public class LibraryWatcher implements Closeable {
+    private static final Logger logger = LogManager.getLogger(LibraryWatcher.class);
+
+    /**
+     * Propiedad del sistema con el intervalo de espera en milisegundos (por ejemplo {@code -Dtextfinder.watch.debounce=500}).
+     */
+    public static final String DEBOUNCE_PROPERTY = "textfinder.watch.debounce";
+
+    private final Path root;
+    private final LibraryIndex index;
+    private final Runnable onChange; // Se ejecuta en el hilo de fondo después de aplicar cada grupo de cambios.
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Set<Path> pending = new LinkedHashSet<>(); // Rutas con eventos aún no aplicados al índice.
+    private final ScheduledExecutorService reindexer;
+    private ScheduledFuture<?> scheduledFlush;
+    private Thread watchThread;
+
+    /**
+     * Crea el vigilante de una carpeta. No empieza a vigilar hasta llamar {@link #start()}.
+     *
+     * @param root La carpeta raíz de la biblioteca.
+     * @param index El índice que se actualiza con los cambios.
+     * @param debounceMillis Milisegundos sin eventos nuevos que se esperan antes de reindexar.
+     * @param onChange Acción a ejecutar después de aplicar cambios al índice; puede ser null.
+     * @throws IOException Si no se puede crear el servicio de vigilancia.
+     */
+    public LibraryWatcher(Path root, LibraryIndex index, long debounceMillis, Runnable onChange) throws IOException {
+        this.root = root.toAbsolutePath();
+        this.index = index;
+        this.debounceMillis = debounceMillis;
+        this.onChange = onChange;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.reindexer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-reindex");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Devuelve el intervalo configurado mediante {@link #DEBOUNCE_PROPERTY}, o 500 ms si no está definido.
+     *
+     * @return El intervalo de espera en milisegundos.
+     */
+    public static long configuredDebounceMillis() {
+        return Math.max(0, Long.getLong(DEBOUNCE_PROPERTY, 500L));
+    }
+
+    /**
+     * Registra la carpeta raíz y todas sus subcarpetas y empieza a vigilar en un hilo demonio.
+     *
+     * @throws IOException Si no se puede recorrer o registrar la carpeta.
+     */
+    public void start() throws IOException {
+        registerAll(root);
+        watchThread = new Thread(this::watchLoop, "library-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        logger.info("Vigilando " + directories.size() + " carpetas en " + root);
+    }
+
+    /**
+     * Registra una carpeta y sus subcarpetas en el servicio de vigilancia.
+     *
+     * @param start La carpeta desde donde registrar.
+     * @throws IOException Si no se puede recorrer la carpeta.
+     */
+    private void registerAll(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                synchronized (directories) {
+                    directories.put(key, dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Ciclo del hilo de vigilancia: toma cada grupo de eventos, anota las rutas afectadas y reprograma la reindexación.
+     */
+    private void watchLoop() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir;
+            synchronized (directories) {
+                dir = directories.get(key);
+            }
+            if (dir != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    handleEvent(dir, event);
+                }
+            }
+            if (!key.reset()) {
+                synchronized (directories) {
+                    directories.remove(key); // La carpeta ya no existe.
+                }
+            }
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Anota la ruta de un evento. Las carpetas nuevas se registran y todo su contenido queda pendiente,
+     * porque sus archivos pudieron crearse antes de que se registrara la carpeta.
+     *
+     * @param dir La carpeta vigilada donde ocurrió el evento.
+     * @param event El evento recibido.
+     */
+    private void handleEvent(Path dir, WatchEvent<?> event) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            logger.warn("Se perdieron eventos de la carpeta " + dir + "; se revisará completa");
+            try {
+                registerAll(root); // Pudieron perderse carpetas nuevas.
+            } catch (IOException e) {
+                logger.error("Error al vigilar la carpeta " + root + ": " + e.getMessage(), e);
+            }
+            markTree(root);
+            // El recorrido solo ve lo que existe: los documentos indexados también se revisan, así los que
+            // se eliminaron durante los eventos perdidos se quitan del índice.
+            for (String path : index.indexedPaths()) {
+                synchronized (pending) {
+                    pending.add(Path.of(path));
+                }
+            }
+            return;
+        }
+        Path child = dir.resolve((Path) event.context());
+        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+            try {
+                registerAll(child);
+            } catch (IOException e) {
+                logger.error("Error al vigilar la carpeta " + child + ": " + e.getMessage(), e);
+            }
+            markTree(child);
+        } else {
+            synchronized (pending) {
+                pending.add(child);
+            }
+        }
+    }
+
+    /**
+     * Marca como pendientes todos los archivos de una carpeta y la carpeta misma.
+     *
+     * @param dir La carpeta a marcar.
+     */
+    private void markTree(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.forEach(path -> {
+                synchronized (pending) {
+                    pending.add(path);
+                }
+            });
+        } catch (IOException e) {
+            logger.error("Error al recorrer la carpeta " + dir + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cancela la reindexación programada y la vuelve a programar, de modo que solo corre cuando
+     * pasa el intervalo completo sin eventos nuevos.
+     */
+    private synchronized void scheduleFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = reindexer.schedule(this::flush, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Aplica al índice los cambios pendientes: los archivos que existen se indexan si son nuevos o cambiaron,
+     * y los que ya no existen se quitan, junto con los documentos de las carpetas eliminadas.
+     */
+    private void flush() {
+        Set<Path> batch;
+        synchronized (pending) {
+            batch = new LinkedHashSet<>(pending);
+            pending.clear();
+        }
+        int changed = 0;
+        for (Path path : batch) {
+            File file = path.toFile();
+            try {
+                if (file.isFile()) {
+                    if (DocumentReaders.isSupported(file.getName()) && index.refreshDocument(file)) {
+                        changed++;
+                    }
+                } else if (!file.exists()) {
+                    // Puede ser un archivo o una carpeta completa eliminada.
+                    if (index.removeDocument(file.getAbsolutePath())) {
+                        changed++;
+                    }
+                    changed += index.removeDirectory(file.getAbsolutePath());
+                }
+            } catch (RuntimeException e) {
+                logger.error("Error al reindexar " + path + ": " + e.getMessage(), e);
+            }
+        }
+        if (changed > 0) {
+            logger.info("Reindexados " + changed + " documentos de la biblioteca");
+            if (onChange != null) {
+                onChange.run();
+            }
+        }
+    }
+
+    /**
+     * Deja de vigilar la carpeta y detiene el hilo de reindexación.
+     *
+     * @throws IOException Si no se puede cerrar el servicio de vigilancia.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        reindexer.shutdownNow();
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+    }
+}
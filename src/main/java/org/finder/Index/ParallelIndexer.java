@@ -0,0 +1,197 @@
+package org.finder.Index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.finder.FileReaders.DocumentReader;
+import org.finder.FileReaders.DocumentReaders;
+import org.finder.FileReaders.TokenEmitter;
+import org.finder.Tree.AVLTree;
+import org.finder.Tree.TokenBatch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Construye el índice de la biblioteca leyendo varios archivos a la vez, como una cadena de dos etapas.
+ * Los hilos de trabajo extraen, tokenizan y normalizan cada archivo con su {@link DocumentReader} y dejan
+ * las palabras en bloques ({@link TokenBatch}) en una cola acotada propia del archivo. El hilo que llama es el
+ * único que escribe en el árbol: vacía las colas en el mismo orden en que aparecen los archivos, así el
+ * resultado de {@link AVLTree#searchString} es idéntico al de la lectura en serie. Como las colas son acotadas,
+ * un lector que se adelanta a la escritura se detiene en lugar de acumular el archivo completo en memoria.
+ */
+public class ParallelIndexer {
+    private static final Logger logger = LogManager.getLogger(ParallelIndexer.class);
+
+    /**
+     * Propiedad del sistema con la cantidad de hilos de indexación (por ejemplo {@code -Dtextfinder.index.workers=4}).
+     * Un valor de 1 usa la lectura en serie.
+     */
+    public static final String WORKERS_PROPERTY = "textfinder.index.workers";
+
+    /**
+     * Propiedad del sistema con la cantidad de bloques de palabras que cada archivo puede tener en espera
+     * antes de que su lector se detenga (por ejemplo {@code -Dtextfinder.index.queueBatches=8}).
+     */
+    public static final String QUEUE_BATCHES_PROPERTY = "textfinder.index.queueBatches";
+
+    private final int workers; // Cantidad de hilos que extraen archivos simultáneamente.
+
+    /**
+     * Crea un indexador con una cantidad fija de hilos de trabajo.
+     *
+     * @param workers La cantidad de hilos; valores menores que 1 se tratan como 1.
+     */
+    public ParallelIndexer(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
+    /**
+     * Devuelve la cantidad de hilos configurada mediante {@link #WORKERS_PROPERTY},
+     * o la cantidad de procesadores disponibles si la propiedad no está definida.
+     *
+     * @return La cantidad de hilos de indexación a usar.
+     */
+    public static int configuredWorkers() {
+        return Math.max(1, Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Devuelve la cantidad de bloques en espera por archivo configurada mediante {@link #QUEUE_BATCHES_PROPERTY},
+     * o 16 si la propiedad no está definida.
+     *
+     * @return La capacidad de la cola de cada archivo.
+     */
+    public static int configuredQueueBatches() {
+        return Math.max(1, Integer.getInteger(QUEUE_BATCHES_PROPERTY, 16));
+    }
+
+    /**
+     * Devuelve la cantidad de hilos de este indexador.
+     *
+     * @return La cantidad de hilos de trabajo.
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Lee todos los archivos y agrega sus palabras al árbol indicado.
+     * Con un solo hilo (o un solo archivo) se leen en serie directamente sobre el árbol.
+     *
+     * @param files Los archivos a indexar, en el orden en que deben quedar sus ocurrencias.
+     * @param tree El árbol AVL donde se insertarán las palabras.
+     */
+    public void indexFiles(List<File> files, AVLTree tree) {
+        if (workers == 1 || files.size() <= 1) {
+            for (File file : files) {
+                indexFile(tree, file);
+            }
+            return;
+        }
+        int capacity = configuredQueueBatches();
+        List<BlockingQueue<TokenBatch>> queues = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            queues.add(new LinkedBlockingQueue<>(capacity));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                File file = files.get(i);
+                BlockingQueue<TokenBatch> queue = queues.get(i);
+                pool.execute(() -> extract(file, queue));
+            }
+            // Escribir en el orden original para conservar el orden de las ocurrencias. Los lectores toman los
+            // archivos en ese mismo orden, así el archivo que se escribe siempre tiene un lector asignado.
+            for (int i = 0; i < files.size(); i++) {
+                String path = files.get(i).getAbsolutePath();
+                BlockingQueue<TokenBatch> queue = queues.get(i);
+                for (TokenBatch batch = queue.take(); batch != TokenBatch.END; batch = queue.take()) {
+                    tree.insert(path, batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Indexación interrumpida", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Extrae las palabras de un archivo en un hilo de trabajo y las deja en su cola, terminando siempre
+     * con {@link TokenBatch#END}, aunque el archivo no pueda leerse o el lector falle con un {@link Error}:
+     * si faltara, el hilo que escribe esperaría esta cola para siempre. Solo se omite si se canceló la indexación.
+     *
+     * @param file El archivo a leer.
+     * @param queue La cola del archivo.
+     */
+    private static void extract(File file, BlockingQueue<TokenBatch> queue) {
+        boolean cancelled = false;
+        try {
+            DocumentReader reader = DocumentReaders.forFile(file);
+            if (reader != null) {
+                TokenEmitter tokens = new TokenEmitter(batch -> put(queue, batch));
+                try {
+                    reader.read(file.toPath(), tokens);
+                } finally {
+                    tokens.flush(); // Las palabras leídas antes de un error también se indexan.
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Error al leer el archivo " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        } catch (CancellationException e) {
+            cancelled = true; // Indexación cancelada: nadie espera esta cola.
+        } catch (Throwable e) {
+            logger.error("Error al indexar el archivo " + file.getAbsolutePath() + ": " + e, e);
+        } finally {
+            if (!cancelled) {
+                put(queue, TokenBatch.END);
+            }
+        }
+    }
+
+    /**
+     * Deja un bloque en la cola de un archivo, esperando si está llena.
+     *
+     * @param queue La cola del archivo.
+     * @param batch El bloque.
+     * @throws CancellationException Si el hilo se interrumpe mientras espera, porque se canceló la indexación.
+     */
+    private static void put(BlockingQueue<TokenBatch> queue, TokenBatch batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Indexación cancelada");
+        }
+    }
+
+    /**
+     * Lee un archivo con el lector que corresponde a su extensión e inserta sus palabras en el árbol.
+     * Los archivos con extensiones no soportadas se ignoran. Si el lector falla a mitad del archivo, el error
+     * solo se registra, igual que al indexar en paralelo: las palabras ya leídas quedan en el árbol.
+     *
+     * @param tree El árbol AVL donde se insertarán las palabras.
+     * @param file El archivo a leer.
+     */
+    public static void indexFile(AVLTree tree, File file) {
+        DocumentReader reader = DocumentReaders.forFile(file);
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.readInto(file.getAbsolutePath(), tree);
+        } catch (IOException e) {
+            logger.error("Error al leer el archivo " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        } catch (Throwable e) {
+            logger.error("Error al indexar el archivo " + file.getAbsolutePath() + ": " + e, e);
+        }
+    }
+}
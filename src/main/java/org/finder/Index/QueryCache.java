@@ -0,0 +1,235 @@
+package org.finder.Index;
+
+import org.finder.Query.QueryParser;
+import org.finder.Tree.FuzzyQuery;
+import org.finder.Tree.Normalizer;
+import org.finder.Tree.WildcardQuery;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché LRU de los resultados de las búsquedas, por consulta normalizada. Su tamaño se mide en resultados
+ * guardados (no en consultas), así unas pocas palabras muy comunes no ocupan toda la memoria: al pasarse del
+ * límite se descartan las consultas usadas hace más tiempo.
+ *
+ * <p>Cada entrada es válida para una generación del índice. {@link LibraryIndex} incrementa la generación al
+ * agregar o quitar documentos; la primera consulta con una generación nueva vacía la caché.
+ */
+public class QueryCache {
+    /**
+     * Propiedad del sistema con la cantidad máxima de resultados guardados entre todas las consultas
+     * (por ejemplo {@code -Dtextfinder.search.cacheResults=50000}); 0 desactiva la caché.
+     */
+    public static final String CAPACITY_PROPERTY = "textfinder.search.cacheResults";
+
+    private final int capacity;
+    private final LinkedHashMap<String, List<String>> entries = new LinkedHashMap<>(16, 0.75f, true); // En orden de uso.
+    private long generation = 0; // Generación del índice de las entradas guardadas.
+    private long cachedResults = 0; // Resultados guardados entre todas las entradas.
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    /**
+     * Crea una caché vacía.
+     *
+     * @param capacity La cantidad máxima de resultados guardados; 0 desactiva la caché.
+     */
+    public QueryCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+    }
+
+    /**
+     * Devuelve la capacidad configurada mediante {@link #CAPACITY_PROPERTY}, o 50000 resultados si no está definida.
+     *
+     * @return La cantidad máxima de resultados guardados.
+     */
+    public static int configuredCapacity() {
+        return Math.max(0, Integer.getInteger(CAPACITY_PROPERTY, 50000));
+    }
+
+    /**
+     * Construye la clave de una consulta con cada término normalizado como en la búsqueda, así "Canción," y
+     * "cancion" comparten la entrada. En las consultas booleanas se normaliza cada palabra y cada frase por
+     * separado, y los operadores y paréntesis se conservan tal cual (AND, OR y NOT solo son operadores en mayúsculas).
+     *
+     * @param kind El tipo de búsqueda, para no mezclar por ejemplo la búsqueda simple con la ordenada por relevancia.
+     * @param input El texto de la búsqueda.
+     * @return La clave de la consulta.
+     * @throws IllegalArgumentException Si una frase de la consulta booleana no cierra sus comillas.
+     */
+    public static String key(String kind, String input) {
+        StringBuilder key = new StringBuilder(kind).append('\u0000');
+        if (!QueryParser.isBooleanQuery(input)) {
+            appendTerms(key, input);
+            return key.toString();
+        }
+        int start = key.length();
+        for (String token : QueryParser.tokens(input)) {
+            if (key.length() > start) {
+                key.append(' ');
+            }
+            if (token.startsWith("\"")) {
+                key.append('"');
+                appendTerms(key, token.substring(1));
+                key.append('"');
+            } else if (token.equals("(") || token.equals(")") || QueryParser.isOperator(token)) {
+                key.append(token);
+            } else {
+                appendTerms(key, token);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Agrega los términos de una palabra o frase separados por un espacio. Cada término se normaliza como en la
+     * búsqueda; los comodines y las búsquedas aproximadas solo pasan a minúsculas, porque la normalización
+     * quitaría sus símbolos. Un término que queda vacío se agrega tal cual: sigue contando como palabra al
+     * destacar la coincidencia.
+     */
+    private static void appendTerms(StringBuilder key, String text) {
+        boolean pattern = WildcardQuery.isWildcard(text) || FuzzyQuery.isFuzzy(text);
+        int length = key.length();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && !isSpace(text.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+                continue;
+            }
+            if (start >= 0) {
+                String term = text.substring(start, i);
+                String normalized = pattern ? term.toLowerCase() : Normalizer.normalizeWord(term);
+                if (key.length() > length) {
+                    key.append(' ');
+                }
+                key.append(normalized.isEmpty() ? term : normalized);
+                start = -1;
+            }
+        }
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r'; // Igual que \\s.
+    }
+
+    /**
+     * Busca los resultados guardados de una consulta.
+     *
+     * @param key La clave de la consulta (ver {@link #key}).
+     * @param generation La generación actual del índice.
+     * @return Los resultados, sin modificar, o null si no están guardados para esa generación.
+     */
+    public synchronized List<String> get(String key, long generation) {
+        invalidateIfStale(generation);
+        List<String> results = entries.get(key);
+        if (results == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return results;
+    }
+
+    /**
+     * Guarda los resultados de una consulta y descarta las menos usadas si se supera la capacidad.
+     * Los resultados de una generación anterior a la guardada no se guardan.
+     *
+     * @param key La clave de la consulta (ver {@link #key}).
+     * @param generation La generación del índice con la que se buscó.
+     * @param results Los resultados; se guarda una copia.
+     */
+    public synchronized void put(String key, long generation, List<String> results) {
+        if (capacity == 0 || generation < this.generation || results.size() > capacity) {
+            return;
+        }
+        invalidateIfStale(generation);
+        List<String> previous = entries.put(key, List.copyOf(results));
+        if (previous != null) {
+            cachedResults -= previous.size();
+        }
+        cachedResults += results.size();
+        Iterator<Map.Entry<String, List<String>>> eldest = entries.entrySet().iterator();
+        while (cachedResults > capacity) {
+            cachedResults -= eldest.next().getValue().size();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Vacía la caché.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        cachedResults = 0;
+    }
+
+    private void invalidateIfStale(long generation) {
+        if (generation != this.generation) {
+            if (!entries.isEmpty()) {
+                invalidations++;
+            }
+            clear();
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Devuelve cuántas consultas se respondieron desde la caché.
+     *
+     * @return La cantidad de aciertos.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Devuelve cuántas consultas no estaban en la caché.
+     *
+     * @return La cantidad de fallos.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Devuelve cuántas consultas se descartaron por falta de espacio.
+     *
+     * @return La cantidad de descartes.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Devuelve cuántas veces se vació la caché porque cambió el índice.
+     *
+     * @return La cantidad de invalidaciones.
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Devuelve la proporción de consultas respondidas desde la caché.
+     *
+     * @return Un valor entre 0 y 1; 0 si todavía no hubo consultas.
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d consultas (%d resultados), %d aciertos, %d fallos (%.1f%% aciertos), %d descartes, %d invalidaciones",
+                entries.size(), cachedResults, hits, misses, getHitRate() * 100, evictions, invalidations);
+    }
+}
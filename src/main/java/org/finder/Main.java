@@ -9,6 +9,7 @@ import org.finder.Tree.AVLTree;
 import org.finder.biblioteca.biblioteca;
 
 import java.io.File;
+import java.io.PrintStream;
 import java.util.List;
 
 public class Main {
@@ -21,7 +22,19 @@ public class Main {
     static DocxFileReader readerdocx = new DocxFileReader(tree);
 
 
+    /**
+     * Abre la interfaz gráfica o, si se pasan argumentos, busca sin interfaz (ver {@link HeadlessSearch}).
+     * Sin interfaz, la salida estándar queda solo para los resultados: el registro y cualquier otro texto
+     * escrito en {@link System#out} van a la salida de errores.
+     *
+     * @param args Los argumentos del modo sin interfaz, o ninguno para abrir la interfaz.
+     */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            PrintStream results = System.out;
+            System.setOut(System.err);
+            System.exit(HeadlessSearch.run(args, System.in, results, System.err));
+        }
         Gui.main(args);
 
     }
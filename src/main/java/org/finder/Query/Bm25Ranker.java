@@ -0,0 +1,187 @@
+package org.finder.Query;
+
+import org.finder.Tree.AVLTree;
+import org.finder.Tree.DocumentTable;
+import org.finder.Tree.Occurrence;
+import org.finder.Tree.TreeNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ordena por relevancia los documentos que cumplen una búsqueda usando BM25. Cada palabra o frase no negada de
+ * la consulta aporta a un documento según cuántas veces aparece en él (frecuencia del término), en cuántos
+ * documentos aparece (las palabras raras pesan más) y el largo del documento comparado con el promedio
+ * (aparecer en un documento corto pesa más). La frecuencia de documento de cada palabra y el largo de cada
+ * documento se mantienen al indexar, en {@link TreeNode#getDocumentCount()} y {@link DocumentTable}.
+ *
+ * <p>Las puntuaciones se acumulan solo para los documentos que cumplen la consulta, leyendo sus coincidencias
+ * con un {@link LeafMatches.Cursor} por hoja, sin crear ocurrencias. Solo se conservan los k mejores documentos
+ * en un montículo acotado: no se crean ni se ordenan resultados para los demás, así una búsqueda que coincide
+ * con casi toda la biblioteca sigue siendo rápida.
+ */
+public class Bm25Ranker {
+    /**
+     * Propiedad del sistema con la cantidad de documentos a mostrar en el orden por relevancia
+     * (por ejemplo {@code -Dtextfinder.search.topK=50}).
+     */
+    public static final String TOP_K_PROPERTY = "textfinder.search.topK";
+
+    private static final double K1 = 1.2; // Saturación de la frecuencia del término.
+    private static final double B = 0.75; // Peso de la normalización por largo del documento.
+
+    private final AVLTree tree;
+    private final int limit;
+
+    /**
+     * Un documento con su puntuación y la coincidencia que lo representa en los resultados.
+     */
+    public static final class ScoredDocument {
+        private final int document;
+        private final double score;
+        private final Occurrence occurrence;
+        private final int length;
+
+        ScoredDocument(int document, double score, Occurrence occurrence, int length) {
+            this.document = document;
+            this.score = score;
+            this.occurrence = occurrence;
+            this.length = length;
+        }
+
+        /**
+         * Devuelve el ID del documento.
+         *
+         * @return El ID del documento.
+         */
+        public int getDocument() {
+            return document;
+        }
+
+        /**
+         * Devuelve la puntuación BM25 del documento.
+         *
+         * @return La puntuación; mayor es más relevante.
+         */
+        public double getScore() {
+            return score;
+        }
+
+        /**
+         * Devuelve la primera coincidencia de la búsqueda en el documento.
+         *
+         * @return La ocurrencia de la primera palabra de la coincidencia.
+         */
+        public Occurrence getOccurrence() {
+            return occurrence;
+        }
+
+        /**
+         * Devuelve cuántas palabras destacar a partir de la ocurrencia.
+         *
+         * @return La cantidad de palabras de la coincidencia.
+         */
+        public int getLength() {
+            return length;
+        }
+    }
+
+    /**
+     * Crea el ordenador por relevancia de un árbol.
+     *
+     * @param tree El árbol del índice.
+     * @param limit La cantidad máxima de documentos a devolver.
+     */
+    public Bm25Ranker(AVLTree tree, int limit) {
+        this.tree = tree;
+        this.limit = Math.max(1, limit);
+    }
+
+    /**
+     * Devuelve la cantidad configurada mediante {@link #TOP_K_PROPERTY}, o 50 si no está definida.
+     *
+     * @return La cantidad de documentos a mostrar.
+     */
+    public static int configuredTopK() {
+        return Math.max(1, Integer.getInteger(TOP_K_PROPERTY, 50));
+    }
+
+    /**
+     * Busca y ordena por relevancia. Acepta las mismas búsquedas que la búsqueda simple (palabra, frase,
+     * comodines, aproximada) y las consultas booleanas de {@link QueryParser}.
+     *
+     * @param input El texto de la búsqueda.
+     * @return Los documentos más relevantes, de mayor a menor puntuación.
+     * @throws IllegalArgumentException Si la consulta booleana está mal formada.
+     */
+    public List<ScoredDocument> rank(String input) {
+        Query query = QueryParser.isBooleanQuery(input) ? new QueryParser(input).parse() : new Query.Leaf(input);
+        BitSet matched = BooleanSearch.matchingDocuments(tree, query);
+        if (matched.isEmpty()) {
+            return new ArrayList<>();
+        }
+        DocumentTable documents = tree.getDocuments();
+        double averageLength = documents.averageTokenCount();
+        int liveDocuments = documents.liveCount();
+        List<Query.Leaf> leaves = new ArrayList<>();
+        query.collectPositiveLeaves(leaves);
+        LeafMatches.Cursor[] cursors = new LeafMatches.Cursor[leaves.size()];
+        double[] idf = new double[leaves.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            LeafMatches leafMatches = leaves.get(i).matches(tree);
+            int documentFrequency = leafMatches.documentFrequency();
+            cursors[i] = leafMatches.cursor();
+            idf[i] = Math.log(1 + (liveDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+
+        // Arreglos indexados por la posición del documento entre los que cumplen la consulta, no por su ID.
+        int count = matched.cardinality();
+        int[] ids = new int[count];
+        double[] scores = new double[count];
+        int[] firstOrdinal = new int[count]; // Primera coincidencia de cada documento, para mostrarla.
+        int[] firstLength = new int[count];
+        LeafMatches.Hits hits = new LeafMatches.Hits();
+        // Montículo de mínimos con los k mejores: la raíz es el peor de los conservados.
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> scores[a] != scores[b]
+                ? Double.compare(scores[a], scores[b])
+                : Integer.compare(b, a));
+        int rank = 0;
+        for (int document = matched.nextSetBit(0); document >= 0; document = matched.nextSetBit(document + 1), rank++) {
+            ids[rank] = document;
+            hits.clear();
+            double norm = K1 * (1 - B + B * documents.tokenCount(document) / averageLength);
+            for (int i = 0; i < cursors.length; i++) {
+                int before = hits.size();
+                cursors[i].addMatches(document, hits);
+                int frequency = hits.size() - before;
+                if (frequency > 0) {
+                    scores[rank] += idf[i] * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+            // Los documentos que cumplen la consulta solo por negaciones se muestran desde su primera palabra.
+            int first = hits.first();
+            firstOrdinal[rank] = first < 0 ? 0 : hits.ordinal(first);
+            firstLength[rank] = first < 0 ? 1 : hits.length(first);
+
+            if (documents.tokenCount(document) == 0) {
+                continue; // Sin palabras no hay nada que mostrar.
+            }
+            if (best.size() < limit) {
+                best.add(rank);
+            } else if (scores[rank] > scores[best.peek()]) {
+                best.poll();
+                best.add(rank);
+            }
+        }
+        ScoredDocument[] ranked = new ScoredDocument[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int r = best.poll();
+            ranked[i] = new ScoredDocument(ids[r], scores[r], documents.occurrence(ids[r], firstOrdinal[r]),
+                    firstLength[r]);
+        }
+        return Arrays.asList(ranked);
+    }
+}
@@ -0,0 +1,105 @@
+package org.finder.Query;
+
+import org.finder.Tree.AVLTree;
+import org.finder.Tree.DocumentTable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta una consulta booleana sobre el árbol y devuelve los resultados con el mismo formato que
+ * {@link AVLTree#searchString}. Primero se calculan los documentos que cumplen la consulta mezclando las
+ * listas de documentos de cada término; después, solo en esos documentos, se destacan las coincidencias
+ * de las palabras y frases que no están negadas. Las coincidencias se leen documento por documento saltando
+ * en las ocurrencias de cada hoja ({@link LeafMatches}), así una palabra muy común combinada con una rara
+ * solo se recorre en los pocos documentos que cumplen la consulta.
+ */
+public class BooleanSearch {
+
+    private BooleanSearch() {
+    }
+
+    /**
+     * Analiza y ejecuta una consulta booleana.
+     *
+     * @param tree El árbol del índice.
+     * @param input El texto de la consulta.
+     * @return Los resultados ordenados por documento y posición.
+     * @throws IllegalArgumentException Si la consulta está mal formada.
+     */
+    public static List<String> search(AVLTree tree, String input) {
+        List<String> results = new ArrayList<>();
+        search(tree, input, Integer.MAX_VALUE, results::addAll);
+        return results;
+    }
+
+    /**
+     * Igual que {@link #search(AVLTree, String)}, pero entrega los resultados de a partes a medida que se les da
+     * formato. Si el hilo se interrumpe, la búsqueda se abandona entre dos resultados.
+     *
+     * @param tree El árbol del índice.
+     * @param input El texto de la consulta.
+     * @param chunkSize La cantidad de resultados de cada parte.
+     * @param consumer Recibe cada parte, en orden de documento y posición.
+     * @throws IllegalArgumentException Si la consulta está mal formada.
+     * @throws CancellationException Si el hilo se interrumpió durante la búsqueda.
+     */
+    public static void search(AVLTree tree, String input, int chunkSize, Consumer<List<String>> consumer) {
+        Query query = new QueryParser(input).parse();
+        BitSet matched = matchingDocuments(tree, query);
+
+        List<Query.Leaf> leaves = new ArrayList<>();
+        query.collectPositiveLeaves(leaves);
+        LeafMatches.Cursor[] cursors = new LeafMatches.Cursor[leaves.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = leaves.get(i).matches(tree).cursor();
+        }
+        DocumentTable documents = tree.getDocuments();
+        LeafMatches.Hits hits = new LeafMatches.Hits();
+        List<String> chunk = new ArrayList<>();
+        for (int document = matched.nextSetBit(0); document >= 0; document = matched.nextSetBit(document + 1)) {
+            hits.clear();
+            for (LeafMatches.Cursor cursor : cursors) {
+                cursor.addMatches(document, hits);
+            }
+            // Una palabra destacada por dos hojas se muestra una vez, con la coincidencia más larga.
+            hits.sortDistinct();
+            if (hits.size() == 0 && documents.tokenCount(document) > 0) {
+                // Los documentos que cumplen la consulta solo por negaciones se muestran desde su primera palabra.
+                hits.add(0, 1);
+            }
+            for (int i = 0; i < hits.size(); i++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Búsqueda cancelada");
+                }
+                chunk.add(tree.formatResult(documents.occurrence(document, hits.ordinal(i)), hits.length(i)));
+                if (chunk.size() >= chunkSize) {
+                    consumer.accept(chunk);
+                    chunk = new ArrayList<>();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+    }
+
+    /**
+     * Recorre el iterador de la consulta y marca los documentos que la cumplen.
+     *
+     * @param tree El árbol del índice.
+     * @param query La consulta analizada.
+     * @return Los IDs de los documentos que cumplen la consulta.
+     */
+    public static BitSet matchingDocuments(AVLTree tree, Query query) {
+        BitSet matched = new BitSet();
+        DocumentIterator iterator = query.iterator(tree);
+        for (int doc = iterator.nextDoc(); doc != DocumentIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+            matched.set(doc);
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,335 @@
+package org.finder.Query;
+
+import org.finder.Tree.DocumentTable;
+import org.finder.Tree.TreeNode;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Recorre en orden creciente los IDs de los documentos que cumplen una parte de una consulta.
+ * Además de avanzar al siguiente documento, permite saltar directamente al primer documento mayor o igual
+ * a uno dado; las intersecciones usan ese salto para no comparar cada entrada de las listas largas.
+ */
+public abstract class DocumentIterator {
+    /**
+     * Valor de {@link #docId()} cuando ya no quedan documentos.
+     */
+    public static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    protected int doc = -1; // Documento actual; -1 antes de empezar.
+
+    /**
+     * Devuelve el documento actual.
+     *
+     * @return El ID del documento, -1 si todavía no se avanzó o {@link #NO_MORE_DOCS} si se terminó.
+     */
+    public int docId() {
+        return doc;
+    }
+
+    /**
+     * Avanza al siguiente documento.
+     *
+     * @return El ID del documento, o {@link #NO_MORE_DOCS} si no quedan más.
+     */
+    public int nextDoc() {
+        return advance(doc + 1);
+    }
+
+    /**
+     * Avanza al primer documento mayor o igual al dado. Si el documento actual ya lo cumple no se mueve.
+     *
+     * @param target El ID del documento buscado.
+     * @return El ID del documento, o {@link #NO_MORE_DOCS} si no quedan más.
+     */
+    public abstract int advance(int target);
+
+    /**
+     * Estima cuántos documentos puede devolver, para decidir el orden de las intersecciones.
+     *
+     * @return Una cota superior de la cantidad de documentos.
+     */
+    public abstract long cost();
+
+    /**
+     * Recorre los documentos de las ocurrencias de una palabra usando sus saltos por bloques.
+     *
+     * @param node El nodo de la palabra, o null si la palabra no está en el índice.
+     * @return El iterador de los documentos de la palabra.
+     */
+    public static DocumentIterator of(TreeNode node) {
+        return node == null ? empty() : new Postings(node);
+    }
+
+    /**
+     * Recorre un arreglo de documentos ya ordenado y sin repetidos.
+     *
+     * @param documents Los IDs de documento en orden creciente.
+     * @return El iterador del arreglo.
+     */
+    public static DocumentIterator of(int[] documents) {
+        return new Sorted(documents);
+    }
+
+    /**
+     * Recorre todos los documentos vigentes de la tabla.
+     *
+     * @param documents La tabla de documentos.
+     * @return El iterador de todos los documentos.
+     */
+    public static DocumentIterator all(DocumentTable documents) {
+        return new All(documents);
+    }
+
+    /**
+     * Devuelve un iterador sin documentos.
+     *
+     * @return El iterador vacío.
+     */
+    public static DocumentIterator empty() {
+        return new Sorted(new int[0]);
+    }
+
+    /**
+     * Intersecta varios iteradores.
+     *
+     * @param iterators Los iteradores a intersectar; al menos uno.
+     * @return El iterador de los documentos que están en todos.
+     */
+    public static DocumentIterator and(List<DocumentIterator> iterators) {
+        return iterators.size() == 1 ? iterators.get(0) : new Conjunction(iterators);
+    }
+
+    /**
+     * Une varios iteradores.
+     *
+     * @param iterators Los iteradores a unir; al menos uno.
+     * @return El iterador de los documentos que están en alguno.
+     */
+    public static DocumentIterator or(List<DocumentIterator> iterators) {
+        return iterators.size() == 1 ? iterators.get(0) : new Disjunction(iterators);
+    }
+
+    /**
+     * Quita de un iterador los documentos de otro.
+     *
+     * @param include Los documentos candidatos.
+     * @param exclude Los documentos a descartar.
+     * @return El iterador de los documentos de include que no están en exclude.
+     */
+    public static DocumentIterator andNot(DocumentIterator include, DocumentIterator exclude) {
+        return new Exclusion(include, exclude);
+    }
+
+    /**
+     * Documentos de las ocurrencias de un nodo. Las ocurrencias están ordenadas por documento, así que
+     * pasar al siguiente documento es saltar al primer índice con un documento mayor.
+     */
+    private static final class Postings extends DocumentIterator {
+        private final TreeNode node;
+        private int index = 0; // Índice de la ocurrencia actual en el nodo.
+
+        Postings(TreeNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            index = node.advancePosting(index, target);
+            doc = index < node.getOccurrenceCount() ? node.getPostingDocument(index) : NO_MORE_DOCS;
+            return doc;
+        }
+
+        @Override
+        public long cost() {
+            return node.getOccurrenceCount();
+        }
+    }
+
+    /**
+     * Documentos de un arreglo ordenado, con búsqueda galopante para los saltos.
+     */
+    private static final class Sorted extends DocumentIterator {
+        private final int[] documents;
+        private int index = 0;
+
+        Sorted(int[] documents) {
+            this.documents = documents;
+        }
+
+        @Override
+        public int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            if (index < documents.length && documents[index] < target) {
+                int low = index; // Invariante: documents[low] es menor que el buscado.
+                int step = 1;
+                while (low + step < documents.length && documents[low + step] < target) {
+                    low += step;
+                    step <<= 1;
+                }
+                int high = Math.min(low + step, documents.length);
+                while (high - low > 1) {
+                    int mid = (low + high) >>> 1;
+                    if (documents[mid] < target) {
+                        low = mid;
+                    } else {
+                        high = mid;
+                    }
+                }
+                index = high;
+            }
+            doc = index < documents.length ? documents[index] : NO_MORE_DOCS;
+            return doc;
+        }
+
+        @Override
+        public long cost() {
+            return documents.length;
+        }
+    }
+
+    /**
+     * Todos los documentos vigentes, para las consultas que solo excluyen (por ejemplo {@code NOT casa}).
+     */
+    private static final class All extends DocumentIterator {
+        private final DocumentTable documents;
+
+        All(DocumentTable documents) {
+            this.documents = documents;
+        }
+
+        @Override
+        public int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            int candidate = target;
+            while (candidate < documents.size() && !documents.isLive(candidate)) {
+                candidate++;
+            }
+            doc = candidate < documents.size() ? candidate : NO_MORE_DOCS;
+            return doc;
+        }
+
+        @Override
+        public long cost() {
+            return documents.liveCount();
+        }
+    }
+
+    /**
+     * Intersección: el iterador más barato propone un documento y los demás saltan hasta él; si alguno
+     * queda más adelante, el primero salta hasta ese documento y se repite.
+     */
+    private static final class Conjunction extends DocumentIterator {
+        private final DocumentIterator lead;
+        private final DocumentIterator[] others;
+
+        Conjunction(List<DocumentIterator> iterators) {
+            DocumentIterator[] sorted = iterators.toArray(new DocumentIterator[0]);
+            Arrays.sort(sorted, Comparator.comparingLong(DocumentIterator::cost));
+            lead = sorted[0];
+            others = Arrays.copyOfRange(sorted, 1, sorted.length);
+        }
+
+        @Override
+        public int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            int candidate = lead.advance(target);
+            while (candidate != NO_MORE_DOCS) {
+                boolean matches = true;
+                for (DocumentIterator other : others) {
+                    int found = other.advance(candidate);
+                    if (found > candidate) {
+                        candidate = lead.advance(found);
+                        matches = false;
+                        break;
+                    }
+                }
+                if (matches) {
+                    break;
+                }
+            }
+            doc = candidate;
+            return doc;
+        }
+
+        @Override
+        public long cost() {
+            return lead.cost();
+        }
+    }
+
+    /**
+     * Unión: el documento actual es el menor entre los documentos actuales de los iteradores.
+     */
+    private static final class Disjunction extends DocumentIterator {
+        private final DocumentIterator[] iterators;
+
+        Disjunction(List<DocumentIterator> iterators) {
+            this.iterators = iterators.toArray(new DocumentIterator[0]);
+        }
+
+        @Override
+        public int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            int minimum = NO_MORE_DOCS;
+            for (DocumentIterator iterator : iterators) {
+                minimum = Math.min(minimum, iterator.advance(target));
+            }
+            doc = minimum;
+            return doc;
+        }
+
+        @Override
+        public long cost() {
+            long cost = 0;
+            for (DocumentIterator iterator : iterators) {
+                cost += iterator.cost();
+            }
+            return cost;
+        }
+    }
+
+    /**
+     * Diferencia: los documentos del primer iterador que el segundo no tiene; el segundo solo salta.
+     */
+    private static final class Exclusion extends DocumentIterator {
+        private final DocumentIterator include;
+        private final DocumentIterator exclude;
+
+        Exclusion(DocumentIterator include, DocumentIterator exclude) {
+            this.include = include;
+            this.exclude = exclude;
+        }
+
+        @Override
+        public int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            int candidate = include.advance(target);
+            while (candidate != NO_MORE_DOCS && exclude.advance(candidate) == candidate) {
+                candidate = include.advance(candidate + 1);
+            }
+            doc = candidate;
+            return doc;
+        }
+
+        @Override
+        public long cost() {
+            return include.cost();
+        }
+    }
+}
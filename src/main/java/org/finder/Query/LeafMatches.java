@@ -0,0 +1,223 @@
+package org.finder.Query;
+
+import org.finder.Tree.AVLTree;
+import org.finder.Tree.FuzzyQuery;
+import org.finder.Tree.Normalizer;
+import org.finder.Tree.PhraseQuery;
+import org.finder.Tree.TreeNode;
+import org.finder.Tree.WildcardQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Coincidencias de una hoja de la consulta, resueltas una sola vez y sin crear ocurrencias. Una palabra, una
+ * palabra con comodines o una aproximada se resuelven a los nodos de sus palabras, cuyas ocurrencias se leen
+ * directamente; una frase, a sus apariciones como pares (documento, índice de la primera palabra).
+ *
+ * <p>Las coincidencias se leen documento por documento con un {@link Cursor}, en orden creciente de documento:
+ * el cursor salta con {@link TreeNode#advancePosting} hasta cada documento pedido, así solo se recorren las
+ * ocurrencias de los documentos que cumplen la consulta y no las de todo el índice.
+ */
+final class LeafMatches {
+    private final TreeNode[] nodes; // Nodos de las palabras de la hoja; vacío si es una frase.
+    private final long[] phrase; // Apariciones de la frase como (documento << 32) | índice; null si no es una frase.
+    private final int length; // Palabras a destacar en cada coincidencia.
+
+    /**
+     * Resuelve una hoja igual que {@link AVLTree#searchAllOccurrences}.
+     *
+     * @param tree El árbol del índice.
+     * @param text La palabra o frase de la hoja, sin normalizar.
+     * @param length La cantidad de palabras de la hoja.
+     */
+    LeafMatches(AVLTree tree, String text, int length) {
+        this.length = length;
+        List<TreeNode> found = new ArrayList<>();
+        long[] phraseMatches = null;
+        if (WildcardQuery.isWildcard(text)) {
+            found = new WildcardQuery(tree, WildcardQuery.configuredMaxExpansions()).expand(text);
+        } else if (FuzzyQuery.isFuzzy(text)) {
+            found = new FuzzyQuery(tree, WildcardQuery.configuredMaxExpansions()).expand(text);
+        } else {
+            String[] words = Normalizer.normalizeWord(text).trim().split("\\s+");
+            if (words.length == 1) {
+                TreeNode node = tree.searchTreeNode(words[0]);
+                if (node != null) {
+                    found.add(node);
+                }
+            } else {
+                phraseMatches = new PhraseQuery(tree.getTerms(), tree.getDocuments()).matches(words);
+            }
+        }
+        this.nodes = found.toArray(new TreeNode[0]);
+        this.phrase = phraseMatches;
+    }
+
+    /**
+     * Crea el iterador de los documentos con al menos una coincidencia.
+     *
+     * @return El iterador de documentos.
+     */
+    DocumentIterator iterator() {
+        if (phrase != null) {
+            return DocumentIterator.of(phraseDocuments());
+        }
+        if (nodes.length == 0) {
+            return DocumentIterator.empty();
+        }
+        List<DocumentIterator> iterators = new ArrayList<>(nodes.length);
+        for (TreeNode node : nodes) {
+            iterators.add(DocumentIterator.of(node));
+        }
+        return DocumentIterator.or(iterators);
+    }
+
+    /**
+     * Devuelve la cantidad de documentos de todo el índice con al menos una coincidencia.
+     *
+     * @return La frecuencia de documento de la hoja.
+     */
+    int documentFrequency() {
+        if (phrase != null) {
+            return phraseDocuments().length;
+        }
+        if (nodes.length == 1) {
+            return nodes[0].getDocumentCount();
+        }
+        int count = 0;
+        DocumentIterator iterator = iterator();
+        for (int doc = iterator.nextDoc(); doc != DocumentIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Devuelve la cantidad de palabras a destacar en cada coincidencia.
+     *
+     * @return La cantidad de palabras de la hoja.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Crea un cursor nuevo sobre las coincidencias.
+     *
+     * @return El cursor, al principio de las coincidencias.
+     */
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private int[] phraseDocuments() {
+        int[] documents = new int[phrase.length];
+        int count = 0;
+        for (long match : phrase) {
+            int document = (int) (match >>> 32);
+            if (count == 0 || documents[count - 1] != document) {
+                documents[count++] = document;
+            }
+        }
+        return Arrays.copyOf(documents, count);
+    }
+
+    /**
+     * Recorre las coincidencias de la hoja documento por documento. Los documentos deben pedirse en orden creciente.
+     */
+    final class Cursor {
+        private final int[] positions = new int[nodes.length]; // Ocurrencia actual de cada nodo.
+        private int phrasePosition = 0; // Aparición actual de la frase.
+
+        /**
+         * Agrega las coincidencias de la hoja en un documento.
+         *
+         * @param document El ID del documento; no menor que el del pedido anterior.
+         * @param hits Recibe el índice de la primera palabra y el largo de cada coincidencia.
+         */
+        void addMatches(int document, Hits hits) {
+            for (int n = 0; n < nodes.length; n++) {
+                TreeNode node = nodes[n];
+                int index = node.advancePosting(positions[n], document);
+                while (index < node.getOccurrenceCount() && node.getPostingDocument(index) == document) {
+                    hits.add(node.getPostingOrdinal(index), length);
+                    index++;
+                }
+                positions[n] = index;
+            }
+            if (phrase != null) {
+                while (phrasePosition < phrase.length && (int) (phrase[phrasePosition] >>> 32) < document) {
+                    phrasePosition++;
+                }
+                while (phrasePosition < phrase.length && (int) (phrase[phrasePosition] >>> 32) == document) {
+                    hits.add((int) phrase[phrasePosition], length);
+                    phrasePosition++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Coincidencias de un documento como pares (índice de la primera palabra, largo) empaquetados en un
+     * {@code long}, en un arreglo que se reutiliza entre documentos. Al ordenar, las coincidencias quedan por
+     * índice y, en el mismo índice, la más larga primero.
+     */
+    static final class Hits {
+        private long[] packed = new long[16];
+        private int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int ordinal, int length) {
+            if (size == packed.length) {
+                packed = Arrays.copyOf(packed, size * 2);
+            }
+            packed[size++] = ((long) ordinal << 32) | (Integer.MAX_VALUE - length);
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Ordena las coincidencias y deja una sola por índice, la más larga.
+         */
+        void sortDistinct() {
+            Arrays.sort(packed, 0, size);
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (kept == 0 || ordinal(kept - 1) != (int) (packed[i] >>> 32)) {
+                    packed[kept++] = packed[i];
+                }
+            }
+            size = kept;
+        }
+
+        /**
+         * Busca la primera coincidencia: la de menor índice y, en el mismo índice, la más larga.
+         *
+         * @return La posición de esa coincidencia, o -1 si no hay ninguna.
+         */
+        int first() {
+            int first = -1;
+            for (int i = 0; i < size; i++) {
+                if (first < 0 || packed[i] < packed[first]) {
+                    first = i;
+                }
+            }
+            return first;
+        }
+
+        int ordinal(int i) {
+            return (int) (packed[i] >>> 32);
+        }
+
+        int length(int i) {
+            return Integer.MAX_VALUE - (int) packed[i];
+        }
+    }
+}
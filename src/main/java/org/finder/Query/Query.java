@@ -0,0 +1,235 @@
+package org.finder.Query;
+
+import org.finder.Tree.AVLTree;
+import org.finder.Tree.FuzzyQuery;
+import org.finder.Tree.Occurrence;
+import org.finder.Tree.WildcardQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nodo del árbol de una consulta booleana, tal como lo produce {@link QueryParser}.
+ * Cada nodo sabe crear el {@link DocumentIterator} de los documentos que lo cumplen y reunir las palabras
+ * o frases que deben destacarse en los resultados (las que no están negadas).
+ */
+public abstract class Query {
+
+    /**
+     * Crea el iterador de los documentos que cumplen este nodo.
+     *
+     * @param tree El árbol del índice.
+     * @return El iterador de documentos.
+     */
+    public abstract DocumentIterator iterator(AVLTree tree);
+
+    /**
+     * Agrega a la lista las hojas (palabras o frases) que no están negadas.
+     *
+     * @param leaves La lista donde se agregan las hojas.
+     */
+    public abstract void collectPositiveLeaves(List<Leaf> leaves);
+
+    /**
+     * Una palabra o una frase entre comillas. La palabra puede tener comodines ({@code casa*}) o ser
+     * aproximada ({@code casa~}).
+     */
+    public static final class Leaf extends Query {
+        private final String text;
+        private final int length;
+        private AVLTree resolvedTree; // Árbol con el que se resolvieron las coincidencias.
+        private LeafMatches matches;
+
+        /**
+         * Crea la hoja de una palabra o frase.
+         *
+         * @param text La palabra o frase, sin normalizar.
+         */
+        public Leaf(String text) {
+            this.text = text.trim();
+            this.length = this.text.split("\\s+").length;
+        }
+
+        /**
+         * Devuelve la palabra o frase de la hoja.
+         *
+         * @return La palabra o frase tal como se escribió.
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Devuelve la cantidad de palabras de la hoja, es decir, cuántas se destacan en cada coincidencia.
+         *
+         * @return La cantidad de palabras.
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Indica si la hoja es una palabra exacta, cuyos documentos pueden recorrerse directamente
+         * sobre las ocurrencias del nodo.
+         *
+         * @return true si es una sola palabra sin comodines.
+         */
+        public boolean isSingleTerm() {
+            return length == 1 && !WildcardQuery.isWildcard(text) && !FuzzyQuery.isFuzzy(text);
+        }
+
+        /**
+         * Busca las ocurrencias de la hoja en el árbol.
+         *
+         * @param tree El árbol del índice.
+         * @return La ocurrencia de la primera palabra de cada coincidencia.
+         */
+        public List<Occurrence> occurrences(AVLTree tree) {
+            return tree.searchAllOccurrences(text);
+        }
+
+        /**
+         * Devuelve las coincidencias de la hoja en el árbol, resolviéndolas la primera vez: la frase se intersecta
+         * y los comodines se expanden una sola vez aunque la hoja se recorra para buscar, destacar y puntuar.
+         *
+         * @param tree El árbol del índice.
+         * @return Las coincidencias de la hoja.
+         */
+        LeafMatches matches(AVLTree tree) {
+            if (matches == null || resolvedTree != tree) {
+                matches = new LeafMatches(tree, text, length);
+                resolvedTree = tree;
+            }
+            return matches;
+        }
+
+        @Override
+        public DocumentIterator iterator(AVLTree tree) {
+            return matches(tree).iterator();
+        }
+
+        @Override
+        public void collectPositiveLeaves(List<Leaf> leaves) {
+            leaves.add(this);
+        }
+
+        @Override
+        public String toString() {
+            return length == 1 ? text : "\"" + text + "\"";
+        }
+    }
+
+    /**
+     * Todos los hijos deben cumplirse. Los hijos negados no se recorren solos: se descartan sus documentos
+     * de la intersección de los demás.
+     */
+    public static final class And extends Query {
+        private final List<Query> clauses;
+
+        /**
+         * Crea la conjunción de varias consultas.
+         *
+         * @param clauses Los hijos; al menos dos.
+         */
+        public And(List<Query> clauses) {
+            this.clauses = clauses;
+        }
+
+        @Override
+        public DocumentIterator iterator(AVLTree tree) {
+            List<DocumentIterator> required = new ArrayList<>();
+            List<DocumentIterator> excluded = new ArrayList<>();
+            for (Query clause : clauses) {
+                if (clause instanceof Not not) {
+                    excluded.add(not.clause.iterator(tree));
+                } else {
+                    required.add(clause.iterator(tree));
+                }
+            }
+            DocumentIterator result = required.isEmpty()
+                    ? DocumentIterator.all(tree.getDocuments())
+                    : DocumentIterator.and(required);
+            return excluded.isEmpty() ? result : DocumentIterator.andNot(result, DocumentIterator.or(excluded));
+        }
+
+        @Override
+        public void collectPositiveLeaves(List<Leaf> leaves) {
+            for (Query clause : clauses) {
+                clause.collectPositiveLeaves(leaves);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "(" + String.join(" AND ", clauses.stream().map(Query::toString).toList()) + ")";
+        }
+    }
+
+    /**
+     * Al menos uno de los hijos debe cumplirse.
+     */
+    public static final class Or extends Query {
+        private final List<Query> clauses;
+
+        /**
+         * Crea la disyunción de varias consultas.
+         *
+         * @param clauses Los hijos; al menos dos.
+         */
+        public Or(List<Query> clauses) {
+            this.clauses = clauses;
+        }
+
+        @Override
+        public DocumentIterator iterator(AVLTree tree) {
+            List<DocumentIterator> iterators = new ArrayList<>();
+            for (Query clause : clauses) {
+                iterators.add(clause.iterator(tree));
+            }
+            return DocumentIterator.or(iterators);
+        }
+
+        @Override
+        public void collectPositiveLeaves(List<Leaf> leaves) {
+            for (Query clause : clauses) {
+                clause.collectPositiveLeaves(leaves);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "(" + String.join(" OR ", clauses.stream().map(Query::toString).toList()) + ")";
+        }
+    }
+
+    /**
+     * El hijo no debe cumplirse. Fuera de un {@link And} equivale a todos los documentos menos los del hijo.
+     */
+    public static final class Not extends Query {
+        private final Query clause;
+
+        /**
+         * Crea la negación de una consulta.
+         *
+         * @param clause El hijo negado.
+         */
+        public Not(Query clause) {
+            this.clause = clause;
+        }
+
+        @Override
+        public DocumentIterator iterator(AVLTree tree) {
+            return DocumentIterator.andNot(DocumentIterator.all(tree.getDocuments()), clause.iterator(tree));
+        }
+
+        @Override
+        public void collectPositiveLeaves(List<Leaf> leaves) {
+            // Las palabras negadas no aparecen en los documentos encontrados.
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + clause;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.finder.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analiza el texto de una consulta booleana y construye su árbol de {@link Query}.
+ *
+ * <p>Sintaxis (los operadores van en mayúsculas; en minúsculas son palabras normales):
+ * <pre>
+ * consulta   := conjuncion ( OR conjuncion )*
+ * conjuncion := negacion ( [AND] negacion )*     dos términos seguidos equivalen a AND
+ * negacion   := NOT negacion | primario
+ * primario   := ( consulta ) | "frase exacta" | palabra
+ * </pre>
+ * Una palabra puede llevar comodines ({@code casa*}) o ser aproximada ({@code casa~}), igual que en la búsqueda simple.
+ */
+public class QueryParser {
+    private static final String AND = "AND";
+    private static final String OR = "OR";
+    private static final String NOT = "NOT";
+
+    private final List<String> tokens;
+    private int position = 0;
+
+    /**
+     * Prepara el análisis de una consulta.
+     *
+     * @param input El texto de la consulta.
+     * @throws IllegalArgumentException Si una frase no cierra sus comillas.
+     */
+    public QueryParser(String input) {
+        this.tokens = tokenize(input);
+    }
+
+    /**
+     * Indica si el texto usa la sintaxis booleana: un operador AND, OR o NOT fuera de comillas, o comillas y
+     * paréntesis que abren y cierran en pares. Una comilla o un paréntesis suelto ({@code O'Reilly (2da ed})
+     * no alcanza: esas búsquedas se siguen evaluando como una palabra o una frase exacta.
+     *
+     * @param input El texto de la búsqueda.
+     * @return true si debe analizarse como consulta booleana.
+     */
+    public static boolean isBooleanQuery(String input) {
+        boolean quoted = false; // Dentro de una frase entre comillas.
+        boolean paired = false; // Se cerró al menos un par de comillas o de paréntesis.
+        boolean balanced = true; // Ningún paréntesis cerró sin haber abierto.
+        int depth = 0;
+        int wordStart = -1;
+        for (int i = 0; i <= input.length(); i++) {
+            char c = i < input.length() ? input.charAt(i) : ' ';
+            boolean separator = Character.isWhitespace(c) || c == '"' || (!quoted && (c == '(' || c == ')'));
+            if (!separator) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                }
+                continue;
+            }
+            if (wordStart >= 0 && !quoted && isOperator(input.substring(wordStart, i))) {
+                return true;
+            }
+            wordStart = -1;
+            if (c == '"') {
+                paired |= quoted;
+                quoted = !quoted;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                if (depth == 0) {
+                    balanced = false;
+                } else {
+                    depth--;
+                    paired = true;
+                }
+            }
+        }
+        return paired && balanced && !quoted && depth == 0;
+    }
+
+    /**
+     * Indica si una palabra es un operador booleano.
+     *
+     * @param word La palabra, tal como se escribió.
+     * @return true si es AND, OR o NOT en mayúsculas.
+     */
+    public static boolean isOperator(String word) {
+        return word.equals(AND) || word.equals(OR) || word.equals(NOT);
+    }
+
+    /**
+     * Separa una consulta booleana en paréntesis, operadores, palabras y frases, igual que al analizarla.
+     *
+     * @param input El texto de la consulta.
+     * @return Los tokens en orden; una frase empieza con comillas y no incluye la de cierre.
+     * @throws IllegalArgumentException Si una frase no cierra sus comillas.
+     */
+    public static List<String> tokens(String input) {
+        return tokenize(input);
+    }
+
+    /**
+     * Analiza la consulta completa.
+     *
+     * @return La raíz del árbol de la consulta.
+     * @throws IllegalArgumentException Si la consulta está vacía o mal formada.
+     */
+    public Query parse() {
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("La consulta está vacía");
+        }
+        Query query = parseOr();
+        if (position < tokens.size()) {
+            throw new IllegalArgumentException("Sobra \"" + tokens.get(position) + "\" en la consulta");
+        }
+        return query;
+    }
+
+    private Query parseOr() {
+        List<Query> clauses = new ArrayList<>();
+        clauses.add(parseAnd());
+        while (accept(OR)) {
+            clauses.add(parseAnd());
+        }
+        return clauses.size() == 1 ? clauses.get(0) : new Query.Or(clauses);
+    }
+
+    private Query parseAnd() {
+        List<Query> clauses = new ArrayList<>();
+        clauses.add(parseNot());
+        while (true) {
+            if (accept(AND)) {
+                clauses.add(parseNot());
+            } else if (position < tokens.size() && !peek().equals(OR) && !peek().equals(")")) {
+                clauses.add(parseNot()); // AND implícito entre términos seguidos.
+            } else {
+                break;
+            }
+        }
+        return clauses.size() == 1 ? clauses.get(0) : new Query.And(clauses);
+    }
+
+    private Query parseNot() {
+        if (accept(NOT)) {
+            return new Query.Not(parseNot());
+        }
+        return parsePrimary();
+    }
+
+    private Query parsePrimary() {
+        if (position >= tokens.size()) {
+            throw new IllegalArgumentException("Falta una palabra al final de la consulta");
+        }
+        String token = tokens.get(position++);
+        if (token.equals("(")) {
+            Query query = parseOr();
+            if (!accept(")")) {
+                throw new IllegalArgumentException("Falta cerrar un paréntesis");
+            }
+            return query;
+        }
+        if (token.equals(")") || token.equals(AND) || token.equals(OR)) {
+            throw new IllegalArgumentException("Se esperaba una palabra antes de \"" + token + "\"");
+        }
+        if (token.startsWith("\"")) {
+            String phrase = token.substring(1).trim();
+            if (phrase.isEmpty()) {
+                throw new IllegalArgumentException("La frase entre comillas está vacía");
+            }
+            return new Query.Leaf(phrase);
+        }
+        return new Query.Leaf(token);
+    }
+
+    private String peek() {
+        return tokens.get(position);
+    }
+
+    private boolean accept(String token) {
+        if (position < tokens.size() && tokens.get(position).equals(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Separa la consulta en paréntesis, frases y palabras. Una frase se devuelve como un solo token que empieza
+     * con comillas (sin la de cierre), para distinguirla de una palabra que coincida con un operador.
+     *
+     * @param input El texto de la consulta.
+     * @return Los tokens en orden.
+     */
+    private static List<String> tokenize(String input) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < input.length()) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int end = input.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Falta cerrar las comillas de una frase");
+                }
+                tokens.add(input.substring(i, end));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < input.length() && !Character.isWhitespace(input.charAt(i))
+                        && "()\"".indexOf(input.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(input.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+}
@@ -3,11 +3,14 @@ import java.nio.file.attribute.*;
 public class Result {
     private String fileName;
     private String filePath;
-    private int fileSize;
+    private long fileSize;
     private FileTime fileTime;
     public String textSnippetm;
     public long creationDate;
     public String linePosition;
+    public int position; // Posición general de la primera palabra de la coincidencia.
+    public int matchLength = 1; // Cantidad de palabras destacadas en el fragmento.
+    public int page; // Página de la coincidencia, 0 si el documento no tiene páginas.
 
     /**
      * Constructor para crear un nuevo objeto Result.
@@ -19,7 +22,7 @@ public class Result {
      * @param fileSize El tamaño del archivo en bytes.
      * @param fileTime La hora de modificación del archivo, utilizando la clase FileTime.
      */
-    public Result(String fileName, String filePath, int fileSize, FileTime fileTime, String textSnippetm,long creationDate, String linePosition) {
+    public Result(String fileName, String filePath, long fileSize, FileTime fileTime, String textSnippetm,long creationDate, String linePosition) {
         this.fileName = fileName;
         this.filePath = filePath;
         this.fileSize = fileSize;
@@ -41,7 +44,7 @@ public class Result {
      *
      * @return El tamaño del archivo en bytes.
      */
-    public int getFileSize() {return fileSize;}
+    public long getFileSize() {return fileSize;}
 
     /**
      * Devuelve la hora de modificación del archivo representado por este objeto.
@@ -0,0 +1,51 @@
+package org.finder.Results;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JTextArea;
+import javax.swing.ListCellRenderer;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.text.SimpleDateFormat;
+
+/**
+ * Pinta una fila de los resultados: la información del archivo y el fragmento de texto encontrado.
+ * Es un único panel que la lista reutiliza para cada fila visible, en lugar de un panel por resultado.
+ */
+public class ResultCellRenderer extends JPanel implements ListCellRenderer<Result> {
+    private final JLabel fileInfoLabel = new JLabel(" "); // Con texto para que tenga alto antes de la primera fila.
+    private final JTextArea occurrenceTextArea = new JTextArea(3, 0); // Tres líneas del fragmento.
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
+
+    /**
+     * Crea el renderizador de las filas.
+     */
+    public ResultCellRenderer() {
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createLineBorder(Color.BLACK)); // Borde negro para cada fila.
+        occurrenceTextArea.setLineWrap(true);
+        occurrenceTextArea.setWrapStyleWord(true);
+        occurrenceTextArea.setOpaque(false);
+        add(fileInfoLabel, BorderLayout.NORTH);
+        add(occurrenceTextArea, BorderLayout.CENTER);
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends Result> list, Result result, int index,
+                                                  boolean isSelected, boolean cellHasFocus) {
+        fileInfoLabel.setText("Archivo: " + result.getFileName() +
+                " | Fecha de creación: " + dateFormat.format(result.creationDate) +
+                " | Tamaño: " + result.getFileSize() + " bytes" +
+                (result.page > 0 ? " | Página: " + result.page : ""));
+        occurrenceTextArea.setText(result.textSnippetm);
+        Color background = isSelected ? list.getSelectionBackground() : list.getBackground();
+        Color foreground = isSelected ? list.getSelectionForeground() : list.getForeground();
+        setBackground(background);
+        fileInfoLabel.setForeground(foreground);
+        occurrenceTextArea.setForeground(foreground);
+        return this;
+    }
+}
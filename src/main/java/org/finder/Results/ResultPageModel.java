@@ -0,0 +1,313 @@
+package org.finder.Results;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.swing.AbstractListModel;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modelo paginado de los resultados de una búsqueda para una {@link javax.swing.JList}.
+ * Recibe los resultados como texto ({@code ruta: ...: línea: fragmento}, el formato de
+ * {@link org.finder.Tree.AVLTree#formatResult}) y solo los convierte en {@link Result} de a páginas, a medida
+ * que la lista se desplaza hasta el final. Los atributos de cada archivo se leen una sola vez aunque tenga
+ * miles de coincidencias, y pueden leerse de antemano fuera del hilo de la interfaz con {@link #readAttributes}.
+ * Una búsqueda en segundo plano puede ir agregando resultados con {@link #addResults} mientras la lista se muestra.
+ *
+ * <p>La lista solo pinta las filas visibles con un único renderizador, así que una palabra muy común ya no
+ * crea un panel por coincidencia.
+ */
+public class ResultPageModel extends AbstractListModel<Result> {
+    private static final Logger logger = LogManager.getLogger(ResultPageModel.class);
+
+    /**
+     * Propiedad del sistema con la cantidad de resultados por página (por ejemplo {@code -Dtextfinder.results.pageSize=200}).
+     */
+    public static final String PAGE_SIZE_PROPERTY = "textfinder.results.pageSize";
+
+    /**
+     * Etiquetas de los campos de un resultado después de la ruta, en orden; la página solo aparece en los
+     * documentos con páginas.
+     */
+    private static final String[] FIELDS = {"Pocición general:", "Página:", "Linea:", "Pocición en linea:"};
+
+    private final List<String> results; // Resultados sin convertir, en el orden de la búsqueda.
+    private final int pageSize;
+    private int nextResult = 0; // Índice del primer resultado que todavía no se convirtió.
+    private final List<Result> rows = new ArrayList<>();
+    private final Map<String, BasicFileAttributes> attributes = new HashMap<>(); // Atributos por ruta; null si no se pudieron leer.
+
+    /**
+     * Crea un modelo sin resultados.
+     */
+    public ResultPageModel() {
+        this(new ArrayList<>(), configuredPageSize());
+    }
+
+    /**
+     * Crea el modelo de los resultados de una búsqueda. No convierte ningún resultado hasta {@link #loadNextPage()}.
+     *
+     * @param results Los resultados en el formato de la búsqueda.
+     * @param pageSize La cantidad de resultados que se convierten por página.
+     */
+    public ResultPageModel(List<String> results, int pageSize) {
+        this.results = new ArrayList<>(results);
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * Lee los atributos de los archivos de unos resultados que todavía no se leyeron. No toca el modelo, así que
+     * puede llamarse desde cualquier hilo.
+     *
+     * @param results Los resultados en el formato de la búsqueda.
+     * @param knownPaths Las rutas ya leídas; se les agregan las de estos resultados.
+     * @return Los atributos de las rutas nuevas; null para las que no se pudieron leer.
+     */
+    public static Map<String, BasicFileAttributes> readAttributes(List<String> results, Set<String> knownPaths) {
+        Map<String, BasicFileAttributes> read = new HashMap<>();
+        for (String result : results) {
+            File file = fileOf(result);
+            if (knownPaths.add(file.getAbsolutePath())) {
+                read.put(file.getAbsolutePath(), readAttributes(file));
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Devuelve la cantidad configurada mediante {@link #PAGE_SIZE_PROPERTY}, o 200 si no está definida.
+     *
+     * @return La cantidad de resultados por página.
+     */
+    public static int configuredPageSize() {
+        return Math.max(1, Integer.getInteger(PAGE_SIZE_PROPERTY, 200));
+    }
+
+    @Override
+    public int getSize() {
+        return rows.size();
+    }
+
+    @Override
+    public Result getElementAt(int index) {
+        return rows.get(index);
+    }
+
+    /**
+     * Devuelve la cantidad total de resultados de la búsqueda, incluidos los que todavía no se cargaron.
+     *
+     * @return La cantidad de resultados.
+     */
+    public int getTotalCount() {
+        return rows.size() + results.size() - nextResult;
+    }
+
+    /**
+     * Agrega resultados al final, por ejemplo la siguiente parte de una búsqueda que sigue en curso.
+     * No se convierten hasta que la lista los necesite.
+     *
+     * @param results Los resultados en el formato de la búsqueda.
+     * @param attributes Atributos ya leídos de sus archivos (ver {@link #readAttributes}); los que falten se leen al convertir.
+     */
+    public void addResults(List<String> results, Map<String, BasicFileAttributes> attributes) {
+        this.results.addAll(results);
+        this.attributes.putAll(attributes);
+    }
+
+    /**
+     * Indica si quedan resultados sin cargar.
+     *
+     * @return true si {@link #loadNextPage()} puede agregar filas.
+     */
+    public boolean hasMorePages() {
+        return nextResult < results.size();
+    }
+
+    /**
+     * Convierte la siguiente página de resultados y la agrega al final de la lista.
+     */
+    public void loadNextPage() {
+        int end = Math.min(results.size(), nextResult + pageSize);
+        int first = rows.size();
+        while (nextResult < end) {
+            Result row = toResult(results.get(nextResult++));
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        if (rows.size() > first) {
+            fireIntervalAdded(this, first, rows.size() - 1);
+        }
+    }
+
+    /**
+     * Carga todos los resultados que faltan, por ejemplo para ordenarlos por nombre, fecha o tamaño.
+     * Después de reordenar la lista devuelta hay que llamar a {@link #rowsReordered()}.
+     *
+     * @return La lista de filas del modelo, modificable.
+     */
+    public List<Result> loadAll() {
+        while (hasMorePages()) {
+            loadNextPage();
+        }
+        return rows;
+    }
+
+    /**
+     * Avisa a la lista que las filas cambiaron de orden.
+     */
+    public void rowsReordered() {
+        if (!rows.isEmpty()) {
+            fireContentsChanged(this, 0, rows.size() - 1);
+        }
+    }
+
+    /**
+     * Quita los resultados de un archivo eliminado de la biblioteca, cargados o no.
+     *
+     * @param file El archivo eliminado.
+     */
+    public void removeFile(File file) {
+        String path = file.getAbsolutePath();
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            if (rows.get(i).getFilePath().equals(path)) {
+                rows.remove(i);
+                fireIntervalRemoved(this, i, i);
+            }
+        }
+        results.subList(nextResult, results.size()).removeIf(result -> fileOf(result).getAbsolutePath().equals(path));
+        attributes.remove(path);
+    }
+
+    /**
+     * Convierte un resultado de la búsqueda en una fila.
+     *
+     * @param result El resultado en el formato de la búsqueda.
+     * @return La fila, o null si no se pudieron leer los atributos del archivo.
+     */
+    private Result toResult(String result) {
+        String[] parts = fieldsOf(result);
+        File file = new File(parts[0]);
+        String path = file.getAbsolutePath();
+        BasicFileAttributes attr;
+        if (attributes.containsKey(path)) {
+            attr = attributes.get(path);
+        } else {
+            attr = readAttributes(file);
+            attributes.put(path, attr);
+        }
+        if (attr == null) {
+            return null;
+        }
+        // parts[4] es la posición en la línea y parts[5] el fragmento de texto correspondiente.
+        Result row = new Result(file.getName(), path, attr.size(), attr.lastModifiedTime(), parts[5],
+                attr.creationTime().toMillis(), parts[4]);
+        row.position = positionOf(parts[1]);
+        row.page = parts[2] == null ? 0 : positionOf(parts[2]);
+        row.matchLength = matchLengthOf(result);
+        return row;
+    }
+
+    /**
+     * Separa un resultado en sus partes por las etiquetas de cada campo, en lugar de cortar en cada {@code ": "},
+     * así el fragmento de texto puede contener {@code ": "} y la página puede faltar.
+     *
+     * @param result El resultado en el formato de la búsqueda.
+     * @return La ruta, "Pocición general:N", "Página:K" (null si no tiene), "Linea:L", "Pocición en linea:P"
+     *         y el fragmento; los campos que faltan quedan como cadenas vacías.
+     */
+    public static String[] fieldsOf(String result) {
+        String[] parts = {"", "", null, "", "", ""};
+        int start = result.indexOf(": " + FIELDS[0]);
+        if (start < 0) {
+            parts[0] = result;
+            return parts;
+        }
+        parts[0] = result.substring(0, start);
+        start += 2;
+        for (int field = 0; field < FIELDS.length; field++) {
+            if (!result.startsWith(FIELDS[field], start)) {
+                continue; // La página es opcional.
+            }
+            int end = result.indexOf(": ", start);
+            if (end < 0) {
+                parts[field + 1] = result.substring(start);
+                return parts;
+            }
+            parts[field + 1] = result.substring(start, end);
+            start = end + 2;
+        }
+        parts[5] = result.substring(start);
+        return parts;
+    }
+
+    /**
+     * Devuelve las coincidencias de la búsqueda en un archivo, cargadas o no, para destacarlas en el visor.
+     *
+     * @param path La ruta absoluta del archivo.
+     * @param limit La cantidad máxima de coincidencias a devolver.
+     * @return La posición general y la cantidad de palabras de cada coincidencia, en el orden de la búsqueda.
+     */
+    public List<int[]> matchesIn(String path, int limit) {
+        List<int[]> matches = new ArrayList<>();
+        for (String result : results) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            if (result.startsWith(path) && fileOf(result).getAbsolutePath().equals(path)) {
+                matches.add(new int[]{positionOf(fieldsOf(result)[1]), matchLengthOf(result)});
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Lee el número de una parte "Etiqueta:N" de un resultado, como "Pocición general:N" o "Página:K".
+     */
+    private static int positionOf(String part) {
+        try {
+            return Integer.parseInt(part.substring(part.indexOf(':') + 1).trim());
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Cuenta las palabras destacadas entre los numerales ({@code ### ... ###}) del fragmento de un resultado.
+     */
+    private static int matchLengthOf(String result) {
+        int start = result.indexOf("### ");
+        int end = start < 0 ? -1 : result.indexOf(" ###", start + 3);
+        if (end < 0) {
+            return 1;
+        }
+        int words = 1;
+        for (int i = start + 4; i < end; i++) {
+            if (result.charAt(i) == ' ') {
+                words++;
+            }
+        }
+        return words;
+    }
+
+    private static File fileOf(String result) {
+        return new File(result.substring(0, result.indexOf(": ")));
+    }
+
+    private static BasicFileAttributes readAttributes(File file) {
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class); // Leer los atributos del archivo.
+        } catch (IOException e) {
+            logger.error("No se pudieron leer los atributos de " + file.getAbsolutePath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.finder.Sorting;
+
+import org.finder.Results.Result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Criterio de ordenamiento de los resultados, formado por una o más claves que se comparan en orden: la segunda
+ * solo desempata la primera, y así sucesivamente (por ejemplo fecha, luego nombre, luego posición).
+ * El ordenamiento es estable, así que los resultados que empatan en todas las claves conservan el orden de la búsqueda.
+ *
+ * <p>Antes de ordenar se extraen las claves de cada resultado una sola vez, como números ({@code long}) o textos,
+ * en lugar de leerlas del resultado en cada comparación. A partir de {@link #PARALLEL_THRESHOLD_PROPERTY} resultados
+ * se ordena en paralelo con {@link Arrays#parallelSort}.
+ *
+ * <p>Los criterios son inmutables: {@link #then} devuelve uno nuevo.
+ */
+public final class ResultOrder {
+
+    /**
+     * Propiedad del sistema con la cantidad de resultados a partir de la cual se ordena en paralelo
+     * (por ejemplo {@code -Dtextfinder.sort.parallelThreshold=20000}).
+     */
+    public static final String PARALLEL_THRESHOLD_PROPERTY = "textfinder.sort.parallelThreshold";
+
+    /**
+     * Clave por la que se puede ordenar un resultado.
+     */
+    public enum Key {
+        /** Nombre del archivo. */
+        NAME,
+        /** Ruta absoluta del archivo. */
+        PATH,
+        /** Fecha de modificación del archivo. */
+        DATE,
+        /** Fecha de creación del archivo. */
+        CREATION_DATE,
+        /** Tamaño del archivo en bytes. */
+        SIZE,
+        /** Posición general de la coincidencia en el documento. */
+        POSITION;
+
+        private boolean isText() {
+            return this == NAME || this == PATH;
+        }
+
+        private long number(Result result) {
+            return switch (this) {
+                case DATE -> result.getFileTime() == null ? Long.MIN_VALUE : result.getFileTime().toMillis();
+                case CREATION_DATE -> result.creationDate;
+                case SIZE -> result.getFileSize();
+                case POSITION -> result.position;
+                default -> 0;
+            };
+        }
+
+        private String text(Result result) {
+            return this == NAME ? result.getFileName() : result.getFilePath();
+        }
+    }
+
+    /**
+     * Resultado con sus claves ya extraídas.
+     */
+    private static final class Row {
+        final Result result;
+        final long[] numbers;
+        final String[] texts;
+
+        Row(Result result, Key[] keys) {
+            this.result = result;
+            this.numbers = new long[keys.length];
+            this.texts = new String[keys.length];
+            for (int k = 0; k < keys.length; k++) {
+                if (keys[k].isText()) {
+                    texts[k] = keys[k].text(result);
+                } else {
+                    numbers[k] = keys[k].number(result);
+                }
+            }
+        }
+    }
+
+    private final Key[] keys;
+    private final boolean[] ascending;
+
+    private ResultOrder(Key[] keys, boolean[] ascending) {
+        this.keys = keys;
+        this.ascending = ascending;
+    }
+
+    /**
+     * Crea un criterio con una sola clave.
+     *
+     * @param key La clave.
+     * @param ascending true para ordenar de menor a mayor.
+     * @return El criterio.
+     */
+    public static ResultOrder by(Key key, boolean ascending) {
+        return new ResultOrder(new Key[]{key}, new boolean[]{ascending});
+    }
+
+    /**
+     * Devuelve un criterio que desempata este con otra clave.
+     *
+     * @param key La clave de desempate.
+     * @param ascending true para ordenar de menor a mayor.
+     * @return El nuevo criterio; este no cambia.
+     */
+    public ResultOrder then(Key key, boolean ascending) {
+        Key[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        boolean[] newAscending = Arrays.copyOf(this.ascending, keys.length + 1);
+        newKeys[keys.length] = key;
+        newAscending[keys.length] = ascending;
+        return new ResultOrder(newKeys, newAscending);
+    }
+
+    /**
+     * Devuelve la cantidad de resultados configurada mediante {@link #PARALLEL_THRESHOLD_PROPERTY} a partir de
+     * la cual se ordena en paralelo, o 8192 si no está definida.
+     *
+     * @return El umbral.
+     */
+    public static int configuredParallelThreshold() {
+        return Math.max(2, Integer.getInteger(PARALLEL_THRESHOLD_PROPERTY, 8192));
+    }
+
+    /**
+     * Ordena una lista de resultados según este criterio, en paralelo si supera el umbral configurado.
+     *
+     * @param results La lista a ordenar; se modifica.
+     */
+    public void sort(List<Result> results) {
+        sort(results, configuredParallelThreshold());
+    }
+
+    /**
+     * Ordena una lista de resultados según este criterio.
+     *
+     * @param results La lista a ordenar; se modifica.
+     * @param parallelThreshold La cantidad de resultados a partir de la cual se ordena en paralelo.
+     */
+    public void sort(List<Result> results, int parallelThreshold) {
+        int size = results.size();
+        if (size < 2) {
+            return;
+        }
+        Row[] rows = new Row[size];
+        int i = 0;
+        for (Result result : results) {
+            rows[i++] = new Row(result, keys);
+        }
+        Comparator<Row> comparator = this::compare;
+        if (size >= parallelThreshold) {
+            Arrays.parallelSort(rows, comparator);
+        } else {
+            Arrays.sort(rows, comparator);
+        }
+        for (i = 0; i < size; i++) {
+            results.set(i, rows[i].result);
+        }
+    }
+
+    /**
+     * Devuelve un comparador equivalente a este criterio, para usar fuera de {@link #sort}. Lee las claves de los
+     * resultados en cada comparación.
+     *
+     * @return El comparador.
+     */
+    public Comparator<Result> comparator() {
+        return (a, b) -> compare(new Row(a, keys), new Row(b, keys));
+    }
+
+    private int compare(Row a, Row b) {
+        for (int k = 0; k < keys.length; k++) {
+            int c = keys[k].isText() ? a.texts[k].compareTo(b.texts[k]) : Long.compare(a.numbers[k], b.numbers[k]);
+            if (c != 0) {
+                return ascending[k] ? c : -c;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>(keys.length);
+        for (int k = 0; k < keys.length; k++) {
+            parts.add(keys[k] + (ascending[k] ? " asc" : " desc"));
+        }
+        return "ResultOrder" + parts;
+    }
+}
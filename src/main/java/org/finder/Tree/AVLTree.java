@@ -1,12 +1,38 @@
 package org.finder.Tree;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 /**
  * Clase para representar un árbol AVL que gestiona palabras y sus ocurrencias en documentos.
  * Proporciona métodos para insertar palabras y buscar en el árbol, manteniendo el equilibrio del árbol.
  */
 public class AVLTree {
     private TreeNode root;
+    private TreeNode lastInserted; // Nodo creado por la última llamada a insertRecursive.
+    private final DocumentTable documents; // Documentos indexados y los detalles compactos de cada ocurrencia.
+    private final TermDictionary terms; // ID de cada palabra normalizada y acceso por hash a su nodo.
+    private volatile Lexicon lexicon; // Diccionario ordenado para recorridos completos; null si cambiaron las palabras.
+
+    /**
+     * Crea un árbol vacío con su propia tabla de documentos y su propio diccionario de palabras.
+     */
+    public AVLTree() {
+        this(new DocumentTable(), new TermDictionary());
+    }
+
+    /**
+     * Crea un árbol vacío que usa la tabla de documentos y el diccionario dados.
+     *
+     * @param documents La tabla de documentos donde están los detalles de las ocurrencias.
+     * @param terms El diccionario de palabras normalizadas.
+     */
+    public AVLTree(DocumentTable documents, TermDictionary terms) {
+        this.documents = documents;
+        this.terms = terms;
+    }
     /**
      * Calcula y devuelve la altura de un nodo en el árbol AVL.
      * La altura es usada para ayudar a mantener el árbol balanceado y es crucial para las operaciones de rotación.
@@ -37,11 +63,298 @@ public class AVLTree {
     }
     /**
      * Inserta una palabra en el árbol. Si la palabra ya existe, añade una nueva ocurrencia.
+     * Los datos de la ocurrencia se copian a la tabla de documentos del árbol; las palabras de un documento
+     * deben insertarse en el orden en que aparecen en él.
      *
      * @param word La palabra a insertar en el árbol.
      */
     public void insert(String word, Occurrence occurrence) {
-        root = insertRecursive(root, word, occurrence);
+        addOccurrence(nodeFor(word), occurrence);
+    }
+    /**
+     * Inserta una palabra con todas sus ocurrencias de una sola vez, conservando el orden de la lista.
+     * Equivale a llamar {@link #insert} por cada ocurrencia, pero desciende el árbol una única vez.
+     *
+     * @param word La palabra normalizada a insertar.
+     * @param occurrences Las ocurrencias de la palabra, en el orden en que deben quedar en el nodo.
+     */
+    public void insertAll(String word, List<Occurrence> occurrences) {
+        TreeNode node = nodeFor(word);
+        for (Occurrence occurrence : occurrences) {
+            addOccurrence(node, occurrence);
+        }
+    }
+    /**
+     * Inserta un bloque de palabras de un documento, en orden. Equivale a llamar {@link #insert} por cada palabra
+     * del bloque, sin crear una {@link Occurrence} por palabra. Los bloques de un documento deben insertarse en el
+     * orden en que aparecen en él.
+     *
+     * @param documentName La ruta del documento.
+     * @param batch Las palabras, ya normalizadas.
+     */
+    public void insert(String documentName, TokenBatch batch) {
+        int document = documents.intern(documentName);
+        for (int i = 0; i < batch.size(); i++) {
+            TreeNode node = nodeFor(batch.word(i));
+            int ordinal = documents.append(document, batch, i, node.getTermId());
+            node.addPosting(document, ordinal);
+        }
+    }
+    /**
+     * Devuelve el nodo de una palabra normalizada, creándolo si no existe.
+     * Las palabras ya conocidas se encuentran por hash en el diccionario; solo una palabra nueva
+     * desciende el árbol y puede provocar rotaciones.
+     *
+     * @param word La palabra normalizada.
+     * @return El nodo de la palabra.
+     */
+    private TreeNode nodeFor(String word) {
+        int term = terms.intern(word);
+        TreeNode node = terms.node(term);
+        if (node == null) {
+            root = insertRecursive(root, terms.word(term), term);
+            node = lastInserted;
+            terms.setNode(term, node);
+            lexicon = null;
+        }
+        return node;
+    }
+    /**
+     * Copia una ocurrencia a la tabla de documentos y la agrega al nodo.
+     *
+     * @param node El nodo de la palabra.
+     * @param occurrence La ocurrencia a agregar.
+     */
+    private void addOccurrence(TreeNode node, Occurrence occurrence) {
+        int document = documents.intern(occurrence.getDocumentName());
+        int ordinal = documents.append(document, occurrence.getOriginalWord(), node.getTermId(),
+                occurrence.getPosition(), occurrence.getLine(), occurrence.getLinePosition());
+        node.addPosting(document, ordinal);
+    }
+    /**
+     * Devuelve el diccionario de palabras del árbol.
+     *
+     * @return El diccionario de palabras normalizadas.
+     */
+    public TermDictionary getTerms() {
+        return terms;
+    }
+    /**
+     * Devuelve la tabla de documentos del árbol, con los detalles compactos de todas las ocurrencias.
+     *
+     * @return La tabla de documentos.
+     */
+    public DocumentTable getDocuments() {
+        return documents;
+    }
+    /**
+     * Indica si el árbol tiene ocurrencias del documento dado.
+     *
+     * @param documentName El nombre (ruta) del documento.
+     * @return true si el documento está indexado en el árbol.
+     */
+    public boolean containsDocument(String documentName) {
+        return documents.idOf(documentName) >= 0;
+    }
+    /**
+     * Quita del árbol todas las ocurrencias de un documento sin reconstruir el índice.
+     * Solo se visitan las palabras que contiene el documento; los nodos que quedan sin ocurrencias
+     * se eliminan del árbol y se rebalancea con las rotaciones AVL correspondientes.
+     *
+     * @param documentName El nombre (ruta) del documento a quitar.
+     * @return La cantidad de ocurrencias eliminadas.
+     */
+    public int removeDocument(String documentName) {
+        int document = documents.idOf(documentName);
+        if (document < 0) {
+            return 0;
+        }
+        int removed = 0;
+        for (int term : documents.remove(document)) {
+            TreeNode node = terms.node(term);
+            if (node == null) {
+                continue;
+            }
+            removed += node.removePostingsOf(document);
+            if (node.getOccurrenceCount() == 0) {
+                root = deleteRecursive(root, node.getWord());
+                terms.setNode(term, null);
+                lexicon = null;
+            }
+        }
+        if (documents.needsCompaction()) {
+            int[] documentMap = documents.compact();
+            for (TreeNode node : nodesInOrder()) {
+                node.renumberDocuments(documentMap);
+            }
+        }
+        return removed;
+    }
+    /**
+     * Fusiona en este árbol todas las palabras y ocurrencias de otro árbol.
+     * Los documentos del otro árbol reciben IDs nuevos en esta tabla y sus ocurrencias se agregan después
+     * de las ya existentes, por lo que fusionar árboles parciales en el mismo orden en que se leyeron los
+     * archivos produce exactamente el mismo árbol que haberlos leído en serie.
+     *
+     * @param other El árbol cuyas palabras se van a agregar a este.
+     */
+    public void merge(AVLTree other) {
+        DocumentTable otherDocuments = other.documents;
+        int[] termMap = new int[other.terms.size()];
+        for (int term = 0; term < termMap.length; term++) {
+            termMap[term] = terms.intern(other.terms.word(term));
+        }
+        int[] documentMap = new int[otherDocuments.size()];
+        int[] surfaceMap = new int[otherDocuments.surfaceCount()];
+        Arrays.fill(surfaceMap, -1);
+        for (int document = 0; document < documentMap.length; document++) {
+            if (otherDocuments.isLive(document)) {
+                documentMap[document] = documents.copyDocument(otherDocuments, document, surfaceMap, termMap);
+            }
+        }
+        List<TreeNode> nodes = new ArrayList<>();
+        collectInOrder(other.root, nodes);
+        for (TreeNode node : nodes) {
+            TreeNode target = nodeFor(node.getWord());
+            for (int i = 0; i < node.getOccurrenceCount(); i++) {
+                target.addPosting(documentMap[node.getPostingDocument(i)], node.getPostingOrdinal(i));
+            }
+        }
+    }
+    /**
+     * Ajusta los arreglos de ocurrencias de todos los nodos y documentos a su tamaño exacto.
+     * Conviene llamarlo al terminar de construir el índice.
+     */
+    public void trimToSize() {
+        for (TreeNode node : nodesInOrder()) {
+            node.trimToSize();
+        }
+        documents.trimToSize();
+    }
+    /**
+     * Estima los bytes de memoria que ocupa el índice (nodos, arreglos de ocurrencias y de documentos)
+     * dividido entre la cantidad de palabras indexadas. No incluye las cadenas de las palabras ni las formas originales.
+     *
+     * @return Los bytes estimados por palabra indexada, o 0 si el árbol está vacío.
+     */
+    public double estimatedBytesPerToken() {
+        long bytes = documents.estimatedBytes();
+        long tokens = 0;
+        for (TreeNode node : nodesInOrder()) {
+            bytes += node.estimatedBytes();
+            tokens += node.getOccurrenceCount();
+        }
+        return tokens == 0 ? 0 : (double) bytes / tokens;
+    }
+    /**
+     * Devuelve todos los nodos del árbol en orden alfabético de su palabra normalizada.
+     *
+     * @return Una lista nueva con los nodos en orden.
+     */
+    public List<TreeNode> nodesInOrder() {
+        List<TreeNode> nodes = new ArrayList<>();
+        collectInOrder(root, nodes);
+        return nodes;
+    }
+    /**
+     * Recorre en orden alfabético solo los nodos cuya palabra empieza con el prefijo dado.
+     * Como esas palabras forman un rango contiguo del árbol, se descartan los subárboles que quedan
+     * fuera del rango sin visitarlos.
+     *
+     * @param prefix El prefijo normalizado; una cadena vacía recorre todo el árbol.
+     * @param action Acción a aplicar a cada nodo; si devuelve false el recorrido se detiene.
+     */
+    public void forEachWithPrefix(String prefix, Predicate<TreeNode> action) {
+        visitPrefix(root, prefix, action);
+    }
+    /**
+     * Devuelve el diccionario en orden alfabético en la forma compacta de {@link Lexicon}, para recorrerlo
+     * completo sin descender el árbol. Se construye la primera vez que se pide y se reutiliza hasta que
+     * se agrega o elimina una palabra.
+     *
+     * @return El diccionario ordenado.
+     */
+    public Lexicon lexicon() {
+        Lexicon current = lexicon;
+        if (current == null) {
+            current = new Lexicon(nodesInOrder());
+            lexicon = current;
+        }
+        return current;
+    }
+    /**
+     * Recorre recursivamente el rango de un prefijo dentro de un subárbol.
+     *
+     * @param node La raíz del subárbol.
+     * @param prefix El prefijo normalizado.
+     * @param action La acción a aplicar a cada nodo del rango.
+     * @return false si la acción pidió detener el recorrido.
+     */
+    private boolean visitPrefix(TreeNode node, String prefix, Predicate<TreeNode> action) {
+        if (node == null) {
+            return true;
+        }
+        String word = node.getWord();
+        if (word.startsWith(prefix)) {
+            return visitPrefix(node.getLeft(), prefix, action)
+                    && action.test(node)
+                    && visitPrefix(node.getRight(), prefix, action);
+        }
+        // Fuera del rango: el rango completo queda a un solo lado del nodo.
+        return word.compareTo(prefix) < 0
+                ? visitPrefix(node.getRight(), prefix, action)
+                : visitPrefix(node.getLeft(), prefix, action);
+    }
+    /**
+     * Construye un árbol AVL perfectamente balanceado a partir de nodos ya ordenados por palabra,
+     * sin comparaciones ni rotaciones. Se usa al recargar un índice guardado en disco.
+     *
+     * @param documents La tabla de documentos a la que pertenecen las ocurrencias de los nodos.
+     * @param terms El diccionario donde ya están las palabras de los nodos con sus IDs.
+     * @param sortedNodes Nodos sin hijos, ordenados alfabéticamente y sin palabras repetidas.
+     * @return Un árbol nuevo que contiene los nodos.
+     */
+    public static AVLTree fromSortedNodes(DocumentTable documents, TermDictionary terms, List<TreeNode> sortedNodes) {
+        AVLTree tree = new AVLTree(documents, terms);
+        tree.root = buildBalanced(sortedNodes, 0, sortedNodes.size() - 1);
+        for (TreeNode node : sortedNodes) {
+            terms.setNode(node.getTermId(), node);
+        }
+        return tree;
+    }
+    /**
+     * Enlaza recursivamente el rango [low, high] de nodos ordenados como un subárbol balanceado.
+     *
+     * @param nodes Los nodos ordenados.
+     * @param low Índice inferior del rango.
+     * @param high Índice superior del rango.
+     * @return La raíz del subárbol, o null si el rango está vacío.
+     */
+    private static TreeNode buildBalanced(List<TreeNode> nodes, int low, int high) {
+        if (low > high) {
+            return null;
+        }
+        int mid = (low + high) >>> 1;
+        TreeNode node = nodes.get(mid);
+        node.setLeft(buildBalanced(nodes, low, mid - 1));
+        node.setRight(buildBalanced(nodes, mid + 1, high));
+        node.setHeight(1 + Math.max(node.getLeft() == null ? 0 : node.getLeft().getHeight(),
+                node.getRight() == null ? 0 : node.getRight().getHeight()));
+        return node;
+    }
+    /**
+     * Recorre el subárbol en orden (alfabético) y agrega cada nodo a la lista.
+     *
+     * @param node El nodo raíz del subárbol a recorrer.
+     * @param nodes La lista donde se acumulan los nodos.
+     */
+    private void collectInOrder(TreeNode node, List<TreeNode> nodes) {
+        if (node == null) {
+            return;
+        }
+        collectInOrder(node.getLeft(), nodes);
+        nodes.add(node);
+        collectInOrder(node.getRight(), nodes);
     }
     /**
      * Realiza una rotación hacia la derecha en el subárbol cuya raíz es el nodo proporcionado.
@@ -81,29 +394,30 @@ public class AVLTree {
         return y;
     }
     /**
-     * Método recursivo para insertar un nodo en el árbol AVL. Asume que la palabra recibida ya está normalizada.
-     * Este método inserta una nueva palabra o añade una ocurrencia a una palabra existente,
+     * Método recursivo para insertar un nodo en el árbol AVL. Asume que la palabra recibida ya está normalizada
+     * y que todavía no está en el árbol (el diccionario ya lo verificó).
+     * Este método crea el nodo de la palabra nueva,
      * manteniendo el árbol balanceado mediante rotaciones necesarias según el factor de balance.
+     * El nodo creado queda en {@code lastInserted} para que el llamador le agregue sus ocurrencias.
      *
      * @param root El nodo que actualmente se está evaluando; null si el subárbol está vacío.
      * @param word La palabra normalizada que se va a insertar en el árbol.
-     * @param occurrence La ocurrencia de la palabra que incluye detalles como el documento y la posición.
+     * @param term El ID de la palabra en el diccionario.
      * @return Retorna el nuevo nodo raíz después de posibles rotaciones para mantener el árbol balanceado.
      */
-    private TreeNode insertRecursive(TreeNode root, String word, Occurrence occurrence) {
+    private TreeNode insertRecursive(TreeNode root, String word, int term) {
         if (root == null) {
-            TreeNode newNode = new TreeNode(word);
-            newNode.addOccurrence(occurrence); // Añadir la ocurrencia al crear el nodo nuevo
-            return newNode;
+            lastInserted = new TreeNode(word, term, documents);
+            return lastInserted;
         }
         int result = root.getWord().compareTo(word);
         if (result > 0) {
-            root.setLeft(insertRecursive(root.getLeft(), word, occurrence));
+            root.setLeft(insertRecursive(root.getLeft(), word, term));
         } else if (result < 0) {
-            root.setRight(insertRecursive(root.getRight(), word, occurrence));
+            root.setRight(insertRecursive(root.getRight(), word, term));
         } else {
             // No se permiten claves duplicadas
-            root.addOccurrence(occurrence); // Añadir la ocurrencia si la palabra ya existe
+            lastInserted = root;
             return root;
         }
         // Actualizar altura de este nodo ancestro
@@ -131,25 +445,76 @@ public class AVLTree {
         return root;
     }
     /**
-     * Método recursivo para buscar un nodo por su palabra normalizada en el árbol AVL.
-     * Navega por el árbol de forma recursiva hasta encontrar el nodo que contiene la palabra especificada o hasta que se alcanza una hoja del árbol.
-     * Este método es crucial para operaciones de búsqueda y es utilizado internamente por el método público {@link #searchTreeNode}.
+     * Método recursivo para eliminar el nodo de una palabra del árbol AVL.
+     * Si el nodo tiene dos hijos se reemplaza por su sucesor (el menor del subárbol derecho),
+     * y cada ancestro se rebalancea al volver de la recursión.
      *
-     * @param root El nodo actual en el árbol que se está inspeccionando. Este parámetro cambia a medida que el método se llama recursivamente.
-     * @param word La palabra normalizada que se busca en el árbol.
-     * @return El nodo que contiene la palabra si se encuentra, o null si no se encuentra la palabra en el árbol.
+     * @param root El nodo que actualmente se está evaluando.
+     * @param word La palabra normalizada del nodo a eliminar.
+     * @return La nueva raíz del subárbol después de eliminar y rebalancear.
      */
-    private TreeNode searchTreeNodeRecursive(TreeNode root, String word) {
+    private TreeNode deleteRecursive(TreeNode root, String word) {
         if (root == null) {
-            return null;  // El árbol está vacío o hemos llegado a una hoja sin encontrar el nodo.
+            return null;
         }
-        if (root.getWord().compareTo(word) == 0) {
-            return root;  // La palabra buscada coincide con el nodo actual.
-        } else if (root.getWord().compareTo(word) > 0) {
-            return searchTreeNodeRecursive(root.getLeft(), word);  // Buscar en el subárbol izquierdo.
+        int result = root.getWord().compareTo(word);
+        if (result > 0) {
+            root.setLeft(deleteRecursive(root.getLeft(), word));
+        } else if (result < 0) {
+            root.setRight(deleteRecursive(root.getRight(), word));
         } else {
-            return searchTreeNodeRecursive(root.getRight(), word);  // Buscar en el subárbol derecho.
+            if (root.getLeft() == null) {
+                return root.getRight();
+            }
+            if (root.getRight() == null) {
+                return root.getLeft();
+            }
+            TreeNode successor = root.getRight();
+            while (successor.getLeft() != null) {
+                successor = successor.getLeft();
+            }
+            successor.setRight(deleteMin(root.getRight()));
+            successor.setLeft(root.getLeft());
+            root = successor;
         }
+        return rebalance(root);
+    }
+    /**
+     * Desenlaza el nodo menor del subárbol y rebalancea los ancestros.
+     *
+     * @param node La raíz del subárbol.
+     * @return La nueva raíz del subárbol sin su nodo menor.
+     */
+    private TreeNode deleteMin(TreeNode node) {
+        if (node.getLeft() == null) {
+            return node.getRight();
+        }
+        node.setLeft(deleteMin(node.getLeft()));
+        return rebalance(node);
+    }
+    /**
+     * Actualiza la altura de un nodo y aplica la rotación que corresponda si quedó desbalanceado.
+     * A diferencia de la inserción, tras una eliminación el caso se decide por el balance del hijo.
+     *
+     * @param node El nodo a rebalancear.
+     * @return La nueva raíz del subárbol.
+     */
+    private TreeNode rebalance(TreeNode node) {
+        node.setHeight(1 + Math.max(height(node.getLeft()), height(node.getRight())));
+        int balance = getBalance(node);
+        if (balance > 1) {
+            if (getBalance(node.getLeft()) < 0) {
+                node.setLeft(leftRotate(node.getLeft())); // Caso Izquierda-Derecha
+            }
+            return rightRotate(node);
+        }
+        if (balance < -1) {
+            if (getBalance(node.getRight()) > 0) {
+                node.setRight(rightRotate(node.getRight())); // Caso Derecha-Izquierda
+            }
+            return leftRotate(node);
+        }
+        return node;
     }
     /**
      * Método público para iniciar la búsqueda de una palabra en el árbol AVL.
@@ -157,7 +522,7 @@ public class AVLTree {
      * incluyendo la conversión a minúsculas, eliminación de puntuación y eliminación de espacios en blanco alrededor de la palabra.
      * Esto permite la búsqueda de una palabra en el árbol sin exponer la estructura interna del mismo y garantiza que las comparaciones
      * se hagan de manera uniforme.
-     * Utiliza el método {@link #searchTreeNodeRecursive} para realizar la búsqueda de forma eficiente.
+     * La palabra normalizada se busca por hash en el diccionario de palabras, sin descender el árbol.
      *
      * @param word La palabra que se desea buscar en el árbol. La palabra será normalizada antes de la búsqueda, incluyendo el recorte de espacios.
      * @return El nodo que contiene la palabra normalizada, si se encuentra; de lo contrario, retorna null.
@@ -168,7 +533,7 @@ public class AVLTree {
         }
         word = word.trim();// Normalizar la palabra recortando espacios
         String normalizedWord = Normalizer.normalizeWord(word);
-        TreeNode node = searchTreeNodeRecursive(root, normalizedWord);
+        TreeNode node = terms.node(normalizedWord);
         if (node == null){
             return null;
         } else {
@@ -178,11 +543,21 @@ public class AVLTree {
     /**
      * Busca todas las ocurrencias de una palabra o frase en el árbol AVL, utilizando una búsqueda normalizada.
      * Devuelve una lista de todas las ocurrencias que coinciden con la palabra o frase normalizada proporcionada.
+     * Una palabra con asteriscos ({@code casa*}, {@code des*ción}) se evalúa con {@link WildcardQuery},
+     * y una palabra terminada en {@code ~} ({@code recivir~}, {@code recivir~1}) con {@link FuzzyQuery}.
      *
      * @param input La palabra o frase que se desea buscar en el árbol.
      * @return Una lista de todas las ocurrencias que coinciden con la entrada normalizada, o una lista vacía si no se encuentra ninguna.
      */
     public List<Occurrence> searchAllOccurrences(String input) {
+        if (WildcardQuery.isWildcard(input)) {
+            // Una palabra con asteriscos se expande a todas las palabras del rango que coinciden
+            return new WildcardQuery(this, WildcardQuery.configuredMaxExpansions()).search(input);
+        }
+        if (FuzzyQuery.isFuzzy(input)) {
+            // Una palabra terminada en ~ se expande a las palabras a distancia de edición 1 o 2
+            return new FuzzyQuery(this, WildcardQuery.configuredMaxExpansions()).search(input);
+        }
         String normalizedInput = Normalizer.normalizeWord(input);  // Normaliza la entrada
         List<Occurrence> occurrences = new ArrayList<>();
 
@@ -193,23 +568,8 @@ public class AVLTree {
                 return new ArrayList<>(node.getOccurrences());  // Devuelve todas las ocurrencias de la palabra normalizada
             }
         } else {
-            TreeNode node = searchTreeNode(words[0]);
-            if (node != null) {
-                for (Occurrence occurrence : node.getOccurrences()) {
-                    boolean matches = true;
-                    Occurrence current = occurrence;
-                    for (int i = 1; i < words.length; i++) {
-                        current = current.getNext();
-                        if (current == null || !Normalizer.normalizeWord(current.getOriginalWord()).equals(words[i])) {
-                            matches = false;
-                            break;
-                        }
-                    }
-                    if (matches) {
-                        occurrences.add(occurrence);  // Añade la ocurrencia de la primera palabra de la frase si toda la frase coincide
-                    }
-                }
-            }
+            // Intersecta las ocurrencias de las palabras empezando por la más rara; devuelve la primera palabra de cada coincidencia
+            return new PhraseQuery(terms, documents).search(words);
         }
         return occurrences;  // Devuelve la lista de ocurrencias encontradas o vacía si no se encuentra ninguna
     }
@@ -221,24 +581,63 @@ public class AVLTree {
      * @return Una lista de cadenas con el nombre del documento y la oración contextualizada para cada coincidencia.
      */
     public List<String> searchString(String input) {
-        List<Occurrence> occurrences = searchAllOccurrences(input);
         List<String> results = new ArrayList<>();
+        searchString(input, Integer.MAX_VALUE, results::addAll);
+        return results;
+    }
+
+    /**
+     * Igual que {@link #searchString(String)}, pero entrega los resultados de a partes a medida que se les da
+     * formato, para mostrar los primeros sin esperar a los demás. Si el hilo se interrumpe, la búsqueda se
+     * abandona entre dos resultados.
+     *
+     * @param input La palabra o frase que se desea buscar.
+     * @param chunkSize La cantidad de resultados de cada parte.
+     * @param consumer Recibe cada parte, en orden.
+     * @throws CancellationException Si el hilo se interrumpió durante la búsqueda.
+     */
+    public void searchString(String input, int chunkSize, Consumer<List<String>> consumer) {
+        List<Occurrence> occurrences = searchAllOccurrences(input);
         String[] words = input.trim().split("\\s+");
         int wordsLength = words.length;
+        List<String> chunk = new ArrayList<>();
         for (Occurrence occurrence : occurrences) {
-            String contextualSentence = SentenceAroundWord(occurrence, wordsLength);
-            results.add(occurrence.getDocumentName() +
-                    ": " + "Pocición general:" + occurrence.getPosition() +
-                    ": " + "Linea:" + occurrence.getLineposition().get(0) +
-                    ": " + "Pocición en linea:" + occurrence.getLineposition().get(1) +
-                    ": " + contextualSentence);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Búsqueda cancelada");
+            }
+            chunk.add(formatResult(occurrence, wordsLength));
+            if (chunk.size() >= chunkSize) {
+                consumer.accept(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
         }
-        return results;
+    }
+    /**
+     * Da formato a una coincidencia igual que {@link #searchString}: nombre del documento, posiciones
+     * y la oración alrededor con la palabra o frase destacada. En los documentos con páginas se agrega
+     * {@code Página:K} después de la posición general; la línea es entonces la línea dentro de la página.
+     *
+     * @param occurrence La ocurrencia de la primera palabra de la coincidencia.
+     * @param length La cantidad de palabras a destacar.
+     * @return El resultado con el formato de {@link #searchString}.
+     */
+    public String formatResult(Occurrence occurrence, int length) {
+        String contextualSentence = SentenceAroundWord(occurrence, length);
+        return occurrence.getDocumentName() +
+                ": " + "Pocición general:" + occurrence.getPosition() +
+                (occurrence.getPage() > 0 ? ": " + "Página:" + occurrence.getPage() : "") +
+                ": " + "Linea:" + occurrence.getLineposition().get(0) +
+                ": " + "Pocición en linea:" + occurrence.getLineposition().get(1) +
+                ": " + contextualSentence;
     }
     /**
      * Construye y devuelve la oración completa alrededor de una ocurrencia de palabra o frase dada,
      * limitando la búsqueda a 20 palabras antes y 20 palabras después. La palabra o frase central
      * está destacada por tres numerales (###) a cada lado, lo que facilita su identificación en el texto.
+     * Las palabras se leen como un rango de la {@link DocumentTable}, sin recorrer ocurrencias una por una.
      *
      * @param occurrence La ocurrencia inicial desde donde se debe comenzar a construir la oración.
      * @param length La longitud de la frase a destacar, empezando desde la ocurrencia dada.
@@ -246,46 +645,40 @@ public class AVLTree {
      *         hasta encontrar un punto o alcanzar el límite de 20 palabras adicionales antes y después.
      */
     private String SentenceAroundWord(Occurrence occurrence, int length) {
-        StringBuilder sentence = new StringBuilder();
-        Occurrence current = occurrence;
-        // Recolectar hasta 20 palabras antes o hasta encontrar un punto.
-        int count = 0;
-        boolean foundPoint = false;  // Bandera para detectar la presencia de un punto.
-        while (current.getPrevious() != null && count < 20) {
-            if (current.getPrevious().getOriginalWord().contains(".")) {
-                foundPoint = true;  // Se detectó un punto, indicando un posible inicio de oración.
-            }
-            if (foundPoint) {
-                break;  // Detener la recolección de palabras previas una vez que se encuentra un punto.
-            }
-            // Insertar la palabra anterior al principio del constructor de cadenas.
-            sentence.insert(0, " " + current.getPrevious().getOriginalWord());
-            current = current.getPrevious();
-            count++;
-        }
-        // Agregar los numerales y la palabra o frase destacada.
-        sentence.append("###");
-        if (length == 1){
-            sentence.append(" ").append(occurrence.getOriginalWord());
-        }else {
-            for (int i = 0; i < length && occurrence != null; i++) {
-                sentence.append(" ").append(occurrence.getOriginalWord());
-                occurrence = occurrence.getNext();
+        int document = occurrence.getDocumentId();
+        if (document < 0) {
+            return "### " + occurrence.getOriginalWord() + " ###"; // Ocurrencia suelta: no hay palabras alrededor.
+        }
+        int ordinal = occurrence.getOrdinal();
+        // Hasta 20 palabras antes, sin pasar de una palabra con punto (el final de la oración anterior).
+        int start = ordinal;
+        while (start > ordinal - 20 && documents.isLinkedToPrevious(document, start)
+                && !documents.originalWord(document, start - 1).contains(".")) {
+            start--;
+        }
+        // La palabra o frase destacada, mientras sus palabras sigan enlazadas.
+        int end = ordinal + 1;
+        while (end < ordinal + length && documents.isLinkedToPrevious(document, end)) {
+            end++;
+        }
+        // Hasta 20 palabras después, incluyendo la primera que tenga un punto.
+        int after = end;
+        while (after < end + 20 && documents.isLinkedToPrevious(document, after)) {
+            after++;
+            if (documents.originalWord(document, after - 1).contains(".")) {
+                break;
             }
         }
+        StringBuilder sentence = new StringBuilder();
+        documents.appendWords(sentence, document, start, ordinal);
+        sentence.append("### ");
+        documents.appendWords(sentence, document, ordinal, end);
         sentence.append(" ###");
-        // Recolectar hasta 20 palabras después o hasta encontrar un punto.
-        current = occurrence;  // Continuar desde la última ocurrencia modificada.
-        count = 0;
-        while (current != null && current.getNext() != null && count < 20) {
-            sentence.append(" ").append(current.getNext().getOriginalWord());
-            if (current.getNext().getOriginalWord().contains(".")) {
-                break;  // Detener la recolección si se encuentra un punto.
-            }
-            current = current.getNext();
-            count++;
+        if (after > end) {
+            sentence.append(' ');
+            documents.appendWords(sentence, document, end, after);
         }
-        return sentence.toString().trim();  // Retornar la oración limpiando espacios adicionales.
+        return sentence.toString();
     }
 
 
@@ -294,6 +687,9 @@ public class AVLTree {
      */
     public void clear() {
         root = clearRecursive(root);
+        lexicon = null;
+        documents.clear();
+        terms.clear();
     }
 
     /**
@@ -0,0 +1,631 @@
+package org.finder.Tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabla compacta de los documentos indexados en un árbol AVL.
+ * Cada documento se identifica con un número entero (su ID) y guarda su secuencia de palabras en arreglos
+ * de enteros primitivos: la forma original de la palabra (como ID de una tabla de formas compartida por todos
+ * los documentos), la posición general, la línea, la posición dentro de la línea y el desplazamiento en caracteres
+ * de la palabra en el texto del documento. Los documentos con páginas
+ * (los PDF) guardan además dónde empieza cada página, como tramos de palabras. Las ocurrencias de los nodos
+ * solo guardan el par (documento, índice del token en el documento), y los objetos {@link Occurrence}
+ * se crean al momento de devolver resultados. Los fragmentos de los resultados y la verificación de frases
+ * leen directamente rangos de estos arreglos.
+ *
+ * <p>Los IDs de documento no se reutilizan: un documento quitado y vuelto a agregar recibe un ID mayor.
+ * Como las ocurrencias de un documento se agregan juntas y al final de cada nodo, las ocurrencias de
+ * cada nodo quedan siempre ordenadas por (documento, índice del token). Para que los IDs de los documentos
+ * quitados no se acumulen, cuando son mayoría la tabla se compacta ({@link #compact}): los documentos vigentes se
+ * renumeran sin cambiar su orden, así que ese orden se conserva, y se descartan las formas que ya nadie usa.
+ */
+public class DocumentTable {
+    private final List<String> paths = new ArrayList<>(); // Ruta de cada documento por ID.
+    private final List<Tokens> tokens = new ArrayList<>(); // Palabras de cada documento por ID (null si se quitó).
+    private final Map<String, Integer> ids = new HashMap<>(); // ID de cada documento vigente por ruta.
+    private long totalTokens; // Cantidad de palabras de todos los documentos vigentes.
+
+    private final List<String> surfaces = new ArrayList<>(); // Forma original de cada palabra por ID de forma.
+    private int[] surfaceTerms = new int[64]; // ID de la palabra normalizada (clave del nodo) de cada forma.
+    private final Map<String, Integer> surfaceIds = new HashMap<>(); // ID de cada forma original.
+
+    private static final int MIN_COMPACT_SIZE = 64; // IDs asignados a partir de los cuales se compacta la tabla.
+
+    /**
+     * Palabras de un documento en orden de lectura, en arreglos paralelos.
+     */
+    private static final class Tokens {
+        int[] surface = new int[16];
+        int[] position = new int[16];
+        int[] line = new int[16];
+        int[] linePosition = new int[16];
+        int[] offset = new int[16];
+        int size;
+        int[] pageFirst = EMPTY; // Índice de la primera palabra de cada tramo de página.
+        int[] pageNumber = EMPTY; // Número de página de cada tramo.
+        int pageRuns;
+
+        void ensureCapacity(int capacity) {
+            if (capacity > surface.length) {
+                int grown = Math.max(capacity, surface.length + (surface.length >> 1));
+                surface = Arrays.copyOf(surface, grown);
+                position = Arrays.copyOf(position, grown);
+                line = Arrays.copyOf(line, grown);
+                linePosition = Arrays.copyOf(linePosition, grown);
+                offset = Arrays.copyOf(offset, grown);
+            }
+        }
+
+        void trimToSize() {
+            surface = Arrays.copyOf(surface, size);
+            position = Arrays.copyOf(position, size);
+            line = Arrays.copyOf(line, size);
+            linePosition = Arrays.copyOf(linePosition, size);
+            offset = Arrays.copyOf(offset, size);
+            pageFirst = Arrays.copyOf(pageFirst, pageRuns);
+            pageNumber = Arrays.copyOf(pageNumber, pageRuns);
+        }
+
+        void addPage(int ordinal, int page) {
+            if (pageRuns > 0 && pageNumber[pageRuns - 1] == page) {
+                return;
+            }
+            if (pageRuns == pageFirst.length) {
+                int grown = Math.max(4, pageRuns * 2);
+                pageFirst = Arrays.copyOf(pageFirst, grown);
+                pageNumber = Arrays.copyOf(pageNumber, grown);
+            }
+            pageFirst[pageRuns] = ordinal;
+            pageNumber[pageRuns] = page;
+            pageRuns++;
+        }
+    }
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Devuelve el ID de un documento, creándolo si todavía no existe.
+     *
+     * @param path La ruta del documento.
+     * @return El ID del documento.
+     */
+    public int intern(String path) {
+        Integer id = ids.get(path);
+        if (id != null) {
+            return id;
+        }
+        int newId = paths.size();
+        paths.add(path);
+        tokens.add(new Tokens());
+        ids.put(path, newId);
+        return newId;
+    }
+
+    /**
+     * Devuelve el ID de un documento vigente.
+     *
+     * @param path La ruta del documento.
+     * @return El ID del documento, o -1 si no está en la tabla.
+     */
+    public int idOf(String path) {
+        Integer id = ids.get(path);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Devuelve la cantidad de IDs asignados, incluidos los de documentos ya quitados.
+     *
+     * @return El siguiente ID que se asignará.
+     */
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * Indica si el ID corresponde a un documento vigente.
+     *
+     * @param document El ID del documento.
+     * @return true si el documento no se quitó.
+     */
+    public boolean isLive(int document) {
+        return tokens.get(document) != null;
+    }
+
+    /**
+     * Devuelve la cantidad de documentos vigentes.
+     *
+     * @return La cantidad de documentos indexados.
+     */
+    public int liveCount() {
+        return ids.size();
+    }
+
+    /**
+     * Devuelve el largo promedio, en palabras, de los documentos vigentes.
+     *
+     * @return El promedio de palabras por documento, o 0 si no hay documentos.
+     */
+    public double averageTokenCount() {
+        return ids.isEmpty() ? 0 : (double) totalTokens / ids.size();
+    }
+
+    /**
+     * Devuelve la ruta de un documento.
+     *
+     * @param document El ID del documento.
+     * @return La ruta del documento.
+     */
+    public String path(int document) {
+        return paths.get(document);
+    }
+
+    /**
+     * Agrega una palabra al final de un documento.
+     *
+     * @param document El ID del documento.
+     * @param originalWord La palabra tal como aparece en el documento.
+     * @param term El ID de la palabra normalizada con la que se insertó en el árbol.
+     * @param position La posición de la palabra en el documento.
+     * @param line El número de línea.
+     * @param linePosition La posición de la palabra en la línea.
+     * @return El índice de la palabra dentro del documento.
+     */
+    public int append(int document, String originalWord, int term, int position, int line, int linePosition) {
+        return append(document, originalWord, term, position, line, linePosition, -1, 0);
+    }
+
+    /**
+     * Agrega al final de un documento una palabra de un bloque leído por un lector de archivos.
+     *
+     * @param document El ID del documento.
+     * @param batch El bloque de palabras.
+     * @param i El índice de la palabra en el bloque.
+     * @param term El ID de la palabra normalizada con la que se insertó en el árbol.
+     * @return El índice de la palabra dentro del documento.
+     */
+    public int append(int document, TokenBatch batch, int i, int term) {
+        return append(document, batch.originalWord(i), term, batch.position(i), batch.line(i),
+                batch.linePosition(i), batch.offset(i), batch.page(i));
+    }
+
+    private int append(int document, String originalWord, int term, int position, int line, int linePosition,
+                       int offset, int page) {
+        Tokens doc = tokens.get(document);
+        int ordinal = doc.size;
+        doc.ensureCapacity(ordinal + 1);
+        doc.surface[ordinal] = internSurface(originalWord, term);
+        doc.position[ordinal] = position;
+        doc.line[ordinal] = line;
+        doc.linePosition[ordinal] = linePosition;
+        doc.offset[ordinal] = offset;
+        if (page > 0) {
+            doc.addPage(ordinal, page);
+        }
+        doc.size++;
+        totalTokens++;
+        return ordinal;
+    }
+
+    /**
+     * Devuelve el ID de una forma original, registrándola si es nueva.
+     *
+     * @param originalWord La forma original.
+     * @param term El ID de la palabra normalizada correspondiente.
+     * @return El ID de la forma.
+     */
+    public int internSurface(String originalWord, int term) {
+        Integer id = surfaceIds.get(originalWord);
+        if (id != null) {
+            return id;
+        }
+        int newId = surfaces.size();
+        surfaces.add(originalWord);
+        if (newId == surfaceTerms.length) {
+            surfaceTerms = Arrays.copyOf(surfaceTerms, newId * 2);
+        }
+        surfaceTerms[newId] = term;
+        surfaceIds.put(originalWord, newId);
+        return newId;
+    }
+
+    /**
+     * Devuelve la cantidad de formas originales registradas.
+     *
+     * @return La cantidad de formas.
+     */
+    public int surfaceCount() {
+        return surfaces.size();
+    }
+
+    /**
+     * Devuelve una forma original por su ID.
+     *
+     * @param surface El ID de la forma.
+     * @return La palabra tal como aparece en los documentos.
+     */
+    public String surface(int surface) {
+        return surfaces.get(surface);
+    }
+
+    /**
+     * Devuelve el ID de la palabra normalizada con la que se indexó una forma original.
+     *
+     * @param surface El ID de la forma.
+     * @return El ID de la palabra normalizada.
+     */
+    public int surfaceTerm(int surface) {
+        return surfaceTerms[surface];
+    }
+
+    /**
+     * Devuelve la cantidad de palabras de un documento.
+     *
+     * @param document El ID del documento.
+     * @return La cantidad de palabras.
+     */
+    public int tokenCount(int document) {
+        return tokens.get(document).size;
+    }
+
+    /**
+     * Devuelve el ID de la forma original de una palabra del documento.
+     *
+     * @param document El ID del documento.
+     * @param ordinal El índice de la palabra en el documento.
+     * @return El ID de la forma original.
+     */
+    public int surfaceAt(int document, int ordinal) {
+        return tokens.get(document).surface[ordinal];
+    }
+
+    /**
+     * Devuelve la forma original de una palabra del documento.
+     *
+     * @param document El ID del documento.
+     * @param ordinal El índice de la palabra en el documento.
+     * @return La palabra tal como aparece en el documento.
+     */
+    public String originalWord(int document, int ordinal) {
+        return surfaces.get(tokens.get(document).surface[ordinal]);
+    }
+
+    /**
+     * Crea la ocurrencia de una palabra del documento.
+     *
+     * @param document El ID del documento.
+     * @param ordinal El índice de la palabra en el documento.
+     * @return La ocurrencia, con acceso a sus palabras anterior y siguiente.
+     */
+    public Occurrence occurrence(int document, int ordinal) {
+        return new Occurrence(this, document, ordinal);
+    }
+
+    /**
+     * Devuelve la posición general de una palabra del documento.
+     *
+     * @param document El ID del documento.
+     * @param ordinal El índice de la palabra en el documento.
+     * @return La posición de la palabra.
+     */
+    public int position(int document, int ordinal) {
+        return tokens.get(document).position[ordinal];
+    }
+
+    /**
+     * Devuelve el número de línea de una palabra del documento.
+     *
+     * @param document El ID del documento.
+     * @param ordinal El índice de la palabra en el documento.
+     * @return El número de línea.
+     */
+    public int line(int document, int ordinal) {
+        return tokens.get(document).line[ordinal];
+    }
+
+    /**
+     * Devuelve la posición dentro de la línea de una palabra del documento.
+     *
+     * @param document El ID del documento.
+     * @param ordinal El índice de la palabra en el documento.
+     * @return La posición en la línea.
+     */
+    public int linePosition(int document, int ordinal) {
+        return tokens.get(document).linePosition[ordinal];
+    }
+
+    /**
+     * Busca la palabra de un documento que tiene una posición general dada. Las posiciones de un documento
+     * son crecientes, así que se busca por bisección.
+     *
+     * @param document El ID del documento.
+     * @param position La posición general de la palabra, como aparece en los resultados.
+     * @return El índice de la palabra en el documento, o -1 si ninguna tiene esa posición.
+     */
+    public int ordinalOf(int document, int position) {
+        Tokens doc = tokens.get(document);
+        int ordinal = Arrays.binarySearch(doc.position, 0, doc.size, position);
+        return ordinal < 0 ? -1 : ordinal;
+    }
+
+    /**
+     * Devuelve el desplazamiento de una palabra en el texto del documento, tal como lo muestra el visor:
+     * el texto con los saltos de línea como {@code \n}, y en los documentos con páginas, el texto de su página.
+     *
+     * @param document El ID del documento.
+     * @param ordinal El índice de la palabra en el documento.
+     * @return El índice del primer carácter de la palabra, o -1 si no se conoce.
+     */
+    public int offset(int document, int ordinal) {
+        return tokens.get(document).offset[ordinal];
+    }
+
+    /**
+     * Agrega a un texto las formas originales de un rango de palabras del documento, separadas por espacios.
+     *
+     * @param text El texto al que se agregan.
+     * @param document El ID del documento.
+     * @param from El índice de la primera palabra.
+     * @param to El índice siguiente a la última palabra.
+     */
+    public void appendWords(StringBuilder text, int document, int from, int to) {
+        Tokens doc = tokens.get(document);
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                text.append(' ');
+            }
+            text.append(surfaces.get(doc.surface[i]));
+        }
+    }
+
+    /**
+     * Devuelve la página donde aparece una palabra del documento.
+     *
+     * @param document El ID del documento.
+     * @param ordinal El índice de la palabra en el documento.
+     * @return El número de página, empezando en 1, o 0 si el documento no tiene páginas.
+     */
+    public int page(int document, int ordinal) {
+        Tokens doc = tokens.get(document);
+        int run = Arrays.binarySearch(doc.pageFirst, 0, doc.pageRuns, ordinal);
+        if (run < 0) {
+            run = -run - 2; // El tramo que empieza antes de la palabra.
+        }
+        return run < 0 ? 0 : doc.pageNumber[run];
+    }
+
+    /**
+     * Devuelve la cantidad de tramos de página de un documento: uno por cada página con palabras.
+     *
+     * @param document El ID del documento.
+     * @return La cantidad de tramos, 0 si el documento no tiene páginas.
+     */
+    public int pageRunCount(int document) {
+        return tokens.get(document).pageRuns;
+    }
+
+    /**
+     * Devuelve el índice de la primera palabra de un tramo de página.
+     *
+     * @param document El ID del documento.
+     * @param run El índice del tramo.
+     * @return El índice de la palabra donde empieza el tramo.
+     */
+    public int pageRunStart(int document, int run) {
+        return tokens.get(document).pageFirst[run];
+    }
+
+    /**
+     * Devuelve el número de página de un tramo.
+     *
+     * @param document El ID del documento.
+     * @param run El índice del tramo.
+     * @return El número de página.
+     */
+    public int pageRunPage(int document, int run) {
+        return tokens.get(document).pageNumber[run];
+    }
+
+    /**
+     * Indica si una palabra del documento sigue inmediatamente a la anterior, es decir, si forman parte
+     * de la misma secuencia de texto.
+     *
+     * @param document El ID del documento.
+     * @param ordinal El índice de la palabra en el documento.
+     * @return true si la palabra está enlazada con la anterior.
+     */
+    public boolean isLinkedToPrevious(int document, int ordinal) {
+        Tokens doc = tokens.get(document);
+        return ordinal > 0 && ordinal < doc.size && doc.position[ordinal - 1] == doc.position[ordinal] - 1;
+    }
+
+    /**
+     * Quita un documento de la tabla y libera sus palabras.
+     *
+     * @param document El ID del documento.
+     * @return Los IDs de las palabras normalizadas distintas que contenía, para quitar sus ocurrencias de los nodos.
+     */
+    public int[] remove(int document) {
+        Tokens doc = tokens.get(document);
+        if (doc == null) {
+            return new int[0];
+        }
+        BitSet terms = new BitSet();
+        for (int i = 0; i < doc.size; i++) {
+            terms.set(surfaceTerms[doc.surface[i]]);
+        }
+        tokens.set(document, null);
+        ids.remove(paths.get(document));
+        totalTokens -= doc.size;
+        return terms.stream().toArray();
+    }
+
+    /**
+     * Indica si conviene compactar la tabla: hay al menos {@value #MIN_COMPACT_SIZE} IDs asignados y la mayoría
+     * son de documentos quitados.
+     *
+     * @return true si la tabla debería compactarse.
+     */
+    public boolean needsCompaction() {
+        return paths.size() >= MIN_COMPACT_SIZE && ids.size() < paths.size() / 2;
+    }
+
+    /**
+     * Renumera los documentos vigentes desde 0, en el mismo orden, y descarta los IDs de los documentos quitados
+     * junto con las formas originales que solo usaban ellos. Después hay que traducir los IDs de documento
+     * guardados fuera de la tabla (las ocurrencias de los nodos) con el arreglo devuelto.
+     *
+     * @return El ID nuevo de cada ID anterior, o -1 para los documentos quitados.
+     */
+    int[] compact() {
+        int[] documentMap = new int[paths.size()];
+        int[] surfaceMap = new int[surfaces.size()];
+        Arrays.fill(surfaceMap, -1);
+        List<String> livePaths = new ArrayList<>(ids.size());
+        List<Tokens> liveTokens = new ArrayList<>(ids.size());
+        List<String> usedSurfaces = new ArrayList<>();
+        int[] usedTerms = new int[Math.max(64, surfaces.size())];
+        for (int document = 0; document < paths.size(); document++) {
+            Tokens doc = tokens.get(document);
+            if (doc == null) {
+                documentMap[document] = -1;
+                continue;
+            }
+            documentMap[document] = livePaths.size();
+            livePaths.add(paths.get(document));
+            liveTokens.add(doc);
+            for (int i = 0; i < doc.size; i++) {
+                int surface = doc.surface[i];
+                if (surfaceMap[surface] < 0) {
+                    surfaceMap[surface] = usedSurfaces.size();
+                    usedTerms[usedSurfaces.size()] = surfaceTerms[surface];
+                    usedSurfaces.add(surfaces.get(surface));
+                }
+                doc.surface[i] = surfaceMap[surface];
+            }
+        }
+        paths.clear();
+        paths.addAll(livePaths);
+        tokens.clear();
+        tokens.addAll(liveTokens);
+        ids.clear();
+        for (int document = 0; document < paths.size(); document++) {
+            ids.put(paths.get(document), document);
+        }
+        surfaces.clear();
+        surfaces.addAll(usedSurfaces);
+        surfaceTerms = usedTerms;
+        surfaceIds.clear();
+        for (int surface = 0; surface < surfaces.size(); surface++) {
+            surfaceIds.put(surfaces.get(surface), surface);
+        }
+        return documentMap;
+    }
+
+    /**
+     * Copia un documento de otra tabla al final de esta, traduciendo sus formas originales.
+     *
+     * @param other La tabla de origen.
+     * @param document El ID del documento en la tabla de origen.
+     * @param surfaceMap Traducción de IDs de forma de la otra tabla a esta; las entradas en -1 se completan aquí.
+     * @param termMap Traducción de IDs de palabra del diccionario de la otra tabla al de esta.
+     * @return El ID del documento en esta tabla.
+     */
+    int copyDocument(DocumentTable other, int document, int[] surfaceMap, int[] termMap) {
+        Tokens source = other.tokens.get(document);
+        int id = intern(other.paths.get(document));
+        Tokens target = tokens.get(id);
+        target.ensureCapacity(target.size + source.size);
+        for (int r = 0; r < source.pageRuns; r++) {
+            target.addPage(target.size + source.pageFirst[r], source.pageNumber[r]);
+        }
+        for (int i = 0; i < source.size; i++) {
+            int surface = source.surface[i];
+            if (surfaceMap[surface] < 0) {
+                surfaceMap[surface] = internSurface(other.surfaces.get(surface), termMap[other.surfaceTerms[surface]]);
+            }
+            target.surface[target.size] = surfaceMap[surface];
+            target.position[target.size] = source.position[i];
+            target.line[target.size] = source.line[i];
+            target.linePosition[target.size] = source.linePosition[i];
+            target.offset[target.size] = source.offset[i];
+            target.size++;
+        }
+        totalTokens += source.size;
+        return id;
+    }
+
+    /**
+     * Carga un documento completo de una sola vez (por ejemplo, desde una instantánea en disco).
+     * Los arreglos pasan a ser propiedad de la tabla.
+     *
+     * @param path La ruta del documento.
+     * @param surface IDs de forma original de cada palabra.
+     * @param position Posición general de cada palabra.
+     * @param line Número de línea de cada palabra.
+     * @param linePosition Posición en la línea de cada palabra.
+     * @param offset Desplazamiento en caracteres de cada palabra.
+     * @param pageFirst Índice de la primera palabra de cada tramo de página; vacío si el documento no tiene páginas.
+     * @param pageNumber Número de página de cada tramo.
+     * @return El ID asignado al documento.
+     */
+    public int load(String path, int[] surface, int[] position, int[] line, int[] linePosition, int[] offset,
+                    int[] pageFirst, int[] pageNumber) {
+        int id = intern(path);
+        Tokens doc = tokens.get(id);
+        doc.surface = surface;
+        doc.position = position;
+        doc.line = line;
+        doc.linePosition = linePosition;
+        doc.offset = offset;
+        doc.pageFirst = pageFirst;
+        doc.pageNumber = pageNumber;
+        doc.pageRuns = pageFirst.length;
+        totalTokens += surface.length - doc.size;
+        doc.size = surface.length;
+        return id;
+    }
+
+    /**
+     * Ajusta los arreglos de cada documento a su tamaño exacto, liberando la capacidad sobrante.
+     */
+    public void trimToSize() {
+        for (Tokens doc : tokens) {
+            if (doc != null && doc.size < doc.surface.length) {
+                doc.trimToSize();
+            }
+        }
+    }
+
+    /**
+     * Estima los bytes que ocupan los arreglos de palabras de los documentos vigentes.
+     *
+     * @return La cantidad estimada de bytes.
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Tokens doc : tokens) {
+            if (doc != null) {
+                bytes += 4L * 16 + 4L * 5 * doc.surface.length; // Encabezados de los cinco arreglos más su contenido.
+                bytes += 4L * 2 * doc.pageFirst.length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Quita todos los documentos y formas de la tabla.
+     */
+    public void clear() {
+        paths.clear();
+        tokens.clear();
+        ids.clear();
+        totalTokens = 0;
+        surfaces.clear();
+        surfaceIds.clear();
+    }
+}
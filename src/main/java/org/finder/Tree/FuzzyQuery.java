@@ -0,0 +1,175 @@
+package org.finder.Tree;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Evalúa búsquedas aproximadas de una palabra ({@code palabra~} o {@code palabra~1}): encuentra las palabras del
+ * índice a una distancia de edición (Levenshtein: inserciones, eliminaciones y sustituciones de letras) de 1 o 2,
+ * útil para errores de tipeo y ruido de OCR en PDFs escaneados.
+ *
+ * <p>En lugar de comparar la consulta con cada palabra del diccionario, se recorre el diccionario en orden como
+ * si fuera un trie: las palabras consecutivas comparten prefijo, así que las filas de la matriz de distancias
+ * del prefijo común se reutilizan, y cuando todas las celdas de la fila de un prefijo superan la distancia máxima
+ * ninguna palabra con ese prefijo puede coincidir y se salta el rango completo con una bisección sobre el
+ * diccionario ordenado ({@link Lexicon#skipPrefix}).
+ * Así solo se visitan los prefijos que todavía pueden coincidir.
+ */
+public class FuzzyQuery {
+    private static final Logger logger = LogManager.getLogger(FuzzyQuery.class);
+
+    /**
+     * Distancia de edición que se usa cuando la consulta no indica una.
+     */
+    public static final int DEFAULT_DISTANCE = 2;
+
+    private static final Pattern SYNTAX = Pattern.compile("(\\S+)~([12])?");
+
+    private final AVLTree tree;
+    private final int maxExpansions;
+
+    /**
+     * Crea el evaluador de búsquedas aproximadas de un árbol.
+     *
+     * @param tree El árbol donde se buscan las palabras.
+     * @param maxExpansions La cantidad máxima de palabras distintas a las que se expande la búsqueda.
+     */
+    public FuzzyQuery(AVLTree tree, int maxExpansions) {
+        this.tree = tree;
+        this.maxExpansions = Math.max(1, maxExpansions);
+    }
+
+    /**
+     * Indica si el texto de una búsqueda es una palabra aproximada: una sola palabra terminada en {@code ~},
+     * opcionalmente seguida de la distancia (1 o 2).
+     *
+     * @param input El texto de la búsqueda, sin normalizar.
+     * @return true si la búsqueda es aproximada.
+     */
+    public static boolean isFuzzy(String input) {
+        return SYNTAX.matcher(input.trim()).matches();
+    }
+
+    /**
+     * Devuelve los nodos de las palabras a la distancia indicada en la consulta, ordenados por distancia,
+     * luego por cantidad de ocurrencias (de más a menos) y por último alfabéticamente.
+     *
+     * @param input La consulta, por ejemplo {@code recivir~1}.
+     * @return Los nodos que coinciden, como máximo la cantidad de expansiones configurada.
+     */
+    public List<TreeNode> expand(String input) {
+        Matcher matcher = SYNTAX.matcher(input.trim());
+        if (!matcher.matches()) {
+            return new ArrayList<>();
+        }
+        String word = Normalizer.normalizeWord(matcher.group(1));
+        int distance = matcher.group(2) == null ? DEFAULT_DISTANCE : Integer.parseInt(matcher.group(2));
+        if (word.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<TreeNode> matches = new ArrayList<>();
+        List<Integer> distances = new ArrayList<>();
+        collect(word, distance, matches, distances);
+
+        Integer[] order = new Integer[matches.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(distances::get)
+                .thenComparing(i -> -matches.get(i).getOccurrenceCount())
+                .thenComparing(i -> matches.get(i).getWord()));
+        if (order.length > maxExpansions) {
+            logger.warn("La búsqueda " + input + " coincide con " + order.length + " palabras; solo se usan las "
+                    + maxExpansions + " más cercanas");
+        }
+        List<TreeNode> ranked = new ArrayList<>(Math.min(order.length, maxExpansions));
+        for (int i = 0; i < order.length && i < maxExpansions; i++) {
+            ranked.add(matches.get(order[i]));
+        }
+        return ranked;
+    }
+
+    /**
+     * Busca todas las ocurrencias de las palabras cercanas a la consulta.
+     *
+     * @param input La consulta, por ejemplo {@code recivir~}.
+     * @return Las ocurrencias agrupadas por palabra en el orden de {@link #expand}; las de cada palabra
+     *         quedan ordenadas por documento y posición.
+     */
+    public List<Occurrence> search(String input) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (TreeNode node : expand(input)) {
+            occurrences.addAll(node.getOccurrences());
+        }
+        return occurrences;
+    }
+
+    /**
+     * Recorre el diccionario en orden y agrega las palabras a la distancia máxima o menos.
+     * {@code rows[d]} es la fila de la matriz de Levenshtein para las primeras d letras de la palabra actual;
+     * al pasar a la palabra siguiente solo se recalculan las filas posteriores al prefijo que comparten.
+     *
+     * @param query La palabra normalizada de la consulta.
+     * @param maxDistance La distancia de edición máxima.
+     * @param matches Lista donde se agregan los nodos que coinciden.
+     * @param distances Lista donde se agrega la distancia de cada nodo agregado.
+     */
+    private void collect(String query, int maxDistance, List<TreeNode> matches, List<Integer> distances) {
+        Lexicon lexicon = tree.lexicon();
+        int columns = query.length() + 1;
+        // Una palabra más larga que la consulta más la distancia máxima no puede coincidir.
+        int[][] rows = new int[query.length() + maxDistance + 2][columns];
+        for (int j = 0; j < columns; j++) {
+            rows[0][j] = j;
+        }
+        int valid = 0; // Filas de rows que siguen correspondiendo a un prefijo de la palabra actual.
+        int index = 0;
+        while (index < lexicon.size()) {
+            int length = lexicon.length(index);
+            int depth = valid;
+            int pruned = -1; // Largo del prefijo a partir del cual ya no puede haber coincidencias.
+            while (depth < length) {
+                if (depth + 1 == rows.length) {
+                    pruned = depth + 1;
+                    break;
+                }
+                int[] above = rows[depth];
+                int[] row = rows[depth + 1];
+                char letter = lexicon.charAt(index, depth);
+                row[0] = depth + 1;
+                int minimum = row[0];
+                for (int j = 1; j < columns; j++) {
+                    int cost = query.charAt(j - 1) == letter ? 0 : 1;
+                    row[j] = Math.min(Math.min(above[j] + 1, row[j - 1] + 1), above[j - 1] + cost);
+                    minimum = Math.min(minimum, row[j]);
+                }
+                depth++;
+                if (minimum > maxDistance) {
+                    pruned = depth;
+                    break;
+                }
+            }
+            if (pruned < 0) {
+                int distance = rows[length][columns - 1];
+                if (distance <= maxDistance) {
+                    matches.add(lexicon.node(index));
+                    distances.add(distance);
+                }
+                index++;
+            } else {
+                index = lexicon.skipPrefix(index, pruned);
+            }
+            // Las palabras saltadas comparten al menos el prefijo podado, así que basta el prefijo de la nueva.
+            if (index < lexicon.size()) {
+                valid = Math.min(depth, lexicon.sharedPrefix(index));
+            }
+        }
+    }
+}
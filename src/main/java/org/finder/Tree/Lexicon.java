@@ -0,0 +1,140 @@
+package org.finder.Tree;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copia de solo lectura del diccionario del árbol en orden alfabético, pensada para recorrerlo completo
+ * rápidamente, como un trie implícito. Las letras de todas las palabras quedan contiguas en un único arreglo
+ * (en el mismo orden del recorrido, así leerlas no salta por la memoria) y para cada palabra se guarda el largo
+ * del prefijo que comparte con la anterior, con lo que se puede saltar el rango de un prefijo sin comparar cadenas.
+ *
+ * <p>El árbol la construye la primera vez que se pide y la descarta cuando se agrega o elimina una palabra.
+ */
+public class Lexicon {
+    private final TreeNode[] nodes; // Nodos en orden alfabético.
+    private final char[] letters; // Letras de todas las palabras, una a continuación de la otra.
+    private final int[] offsets; // Inicio de cada palabra en letters; offsets[size] es el total de letras.
+    private final int[] sharedPrefix; // Largo del prefijo común con la palabra anterior (0 para la primera).
+
+    /**
+     * Construye el diccionario ordenado a partir de los nodos de un árbol.
+     *
+     * @param sortedNodes Los nodos en orden alfabético y sin palabras repetidas.
+     */
+    Lexicon(List<TreeNode> sortedNodes) {
+        int size = sortedNodes.size();
+        nodes = sortedNodes.toArray(new TreeNode[0]);
+        offsets = new int[size + 1];
+        sharedPrefix = new int[size];
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            offsets[i] = total;
+            total += nodes[i].getWord().length();
+        }
+        offsets[size] = total;
+        letters = new char[total];
+        String previous = "";
+        for (int i = 0; i < size; i++) {
+            String word = nodes[i].getWord();
+            word.getChars(0, word.length(), letters, offsets[i]);
+            int limit = Math.min(previous.length(), word.length());
+            int shared = 0;
+            while (shared < limit && previous.charAt(shared) == word.charAt(shared)) {
+                shared++;
+            }
+            sharedPrefix[i] = shared;
+            previous = word;
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de palabras.
+     *
+     * @return La cantidad de palabras del diccionario.
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Devuelve el nodo de una palabra.
+     *
+     * @param index La posición alfabética de la palabra.
+     * @return El nodo de la palabra.
+     */
+    public TreeNode node(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * Devuelve el largo de una palabra.
+     *
+     * @param index La posición alfabética de la palabra.
+     * @return La cantidad de letras.
+     */
+    public int length(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Devuelve una letra de una palabra sin crear cadenas.
+     *
+     * @param index La posición alfabética de la palabra.
+     * @param position La posición de la letra en la palabra.
+     * @return La letra.
+     */
+    public char charAt(int index, int position) {
+        return letters[offsets[index] + position];
+    }
+
+    /**
+     * Devuelve el largo del prefijo que una palabra comparte con la anterior.
+     *
+     * @param index La posición alfabética de la palabra.
+     * @return El largo del prefijo común, o 0 para la primera palabra.
+     */
+    public int sharedPrefix(int index) {
+        return sharedPrefix[index];
+    }
+
+    /**
+     * Devuelve la posición de la primera palabra después de {@code index} que no comparte sus primeras
+     * {@code length} letras. Como las palabras con un mismo prefijo son contiguas, el final del rango se busca
+     * con saltos que se duplican hasta pasarlo y luego por bisección entre el último salto y el anterior, así un
+     * rango de {@code n} palabras se salta en O(log n) comparaciones de prefijo en lugar de recorrerlo.
+     *
+     * @param index La posición de una palabra del rango; debe tener al menos {@code length} letras.
+     * @param length El largo del prefijo a saltar.
+     * @return La posición de la primera palabra fuera del rango, o {@link #size()} si no hay más.
+     */
+    public int skipPrefix(int index, int length) {
+        int inside = index; // Última posición conocida dentro del rango.
+        int step = 1;
+        while (inside + step < nodes.length && hasPrefix(inside + step, index, length)) {
+            inside += step;
+            step <<= 1;
+        }
+        int outside = Math.min(inside + step, nodes.length); // Primera posición conocida fuera del rango.
+        while (outside - inside > 1) {
+            int middle = (inside + outside) >>> 1;
+            if (hasPrefix(middle, index, length)) {
+                inside = middle;
+            } else {
+                outside = middle;
+            }
+        }
+        return outside;
+    }
+
+    /**
+     * Indica si una palabra empieza con las primeras {@code length} letras de otra.
+     */
+    private boolean hasPrefix(int index, int prefixIndex, int length) {
+        if (length(index) < length) {
+            return false;
+        }
+        return Arrays.equals(letters, offsets[index], offsets[index] + length,
+                letters, offsets[prefixIndex], offsets[prefixIndex] + length);
+    }
+}
@@ -1,15 +1,123 @@
 package org.finder.Tree;
 
-public class Normalizer {
+/**
+ * Normaliza las palabras del índice y de las búsquedas: pasa a minúsculas, quita la puntuación ASCII y quita
+ * los acentos y demás diacríticos ("Canción," queda "cancion"), todo en un solo recorrido de los caracteres.
+ * Se usa al indexar y al buscar, así una palabra se encuentra se escriba o no con acento.
+ *
+ * <p>La conversión de cada carácter de los alfabetos latino, griego y cirílico (hasta U+1FFF) está precalculada
+ * en una tabla. Fuera de ella solo se pasa a minúsculas y se quitan las marcas combinantes sueltas.
+ * Cada hilo reutiliza su propio buffer, y una palabra que ya está normalizada se devuelve sin copiarla.
+ */
+public final class Normalizer {
+    private static final char REMOVED = '\uFFFF'; // En la tabla: el carácter se quita de la palabra.
+    private static final char[] FOLD = buildFoldTable(0x2000);
+    private static final ThreadLocal<Normalizer> LOCAL = ThreadLocal.withInitial(Normalizer::new);
+
+    private char[] buffer = new char[32];
+
+    /**
+     * Crea un normalizador con su propio buffer. Un normalizador no debe compartirse entre hilos;
+     * {@link #normalizeWord} usa uno por hilo.
+     */
+    public Normalizer() {
+    }
+
     /**
-     * Normaliza una palabra eliminando toda puntuación y convirtiéndola a minúsculas.
+     * Normaliza una palabra eliminando toda puntuación, los acentos y convirtiéndola a minúsculas.
      * Esta función es esencial para asegurar que las comparaciones de palabras en el árbol AVL se hagan
-     * de manera uniforme, independientemente de las diferencias de formato o puntuación en el texto original.
+     * de manera uniforme, independientemente de las diferencias de formato, puntuación o acentos en el texto original.
+     * Los espacios se conservan, así que también puede normalizarse una frase completa.
      *
      * @param word La palabra que se va a normalizar.
-     * @return La palabra normalizada: sin puntuación y en minúsculas.
+     * @return La palabra normalizada: sin puntuación, sin acentos y en minúsculas.
      */
     public static String normalizeWord(String word) {
-        return word.toLowerCase().replaceAll("\\p{Punct}", "");
+        return LOCAL.get().normalize(word);
+    }
+
+    /**
+     * Normaliza una palabra igual que {@link #normalizeWord}, usando el buffer de este normalizador.
+     *
+     * @param word La palabra que se va a normalizar.
+     * @return La palabra normalizada; la misma instancia si no cambió.
+     */
+    public String normalize(String word) {
+        int length = word.length();
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        }
+        char[] out = buffer;
+        int size = 0;
+        boolean changed = false;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            char folded = fold(c);
+            if (folded != c) {
+                changed = true;
+                if (folded == REMOVED) {
+                    continue;
+                }
+            }
+            out[size++] = folded;
+        }
+        return changed ? new String(out, 0, size) : word;
+    }
+
+    /**
+     * Devuelve la forma normalizada de un carácter.
+     *
+     * @param c El carácter.
+     * @return El carácter en minúsculas y sin diacríticos, o {@link #REMOVED} si debe quitarse.
+     */
+    private static char fold(char c) {
+        if (c < FOLD.length) {
+            return FOLD[c];
+        }
+        return isMark(c) ? REMOVED : Character.toLowerCase(c);
+    }
+
+    /**
+     * Precalcula la forma normalizada de los primeros caracteres: las letras con diacríticos se reemplazan por
+     * su letra base según su descomposición NFD, en minúsculas, y la puntuación ASCII y las marcas combinantes
+     * se quitan.
+     *
+     * @param size La cantidad de caracteres de la tabla.
+     * @return La tabla indexada por carácter.
+     */
+    private static char[] buildFoldTable(int size) {
+        char[] table = new char[size];
+        for (int c = 0; c < size; c++) {
+            char base = (char) c;
+            String decomposed = java.text.Normalizer.normalize(String.valueOf(base), java.text.Normalizer.Form.NFD);
+            if (decomposed.chars().skip(1).allMatch(m -> isMark((char) m))) {
+                base = decomposed.charAt(0); // También las equivalencias de un solo carácter, como U+037E por ';'.
+            }
+            table[c] = isPunctuation(base) || isMark(base) ? REMOVED : Character.toLowerCase(base);
+        }
+        return table;
+    }
+
+    /**
+     * Indica si un carácter es un signo de puntuación ASCII, los mismos que {@code \p{Punct}}:
+     * {@code !"#$%&'()*+,-./:;<=>?@[\]^_`{|}~}.
+     *
+     * @param c El carácter.
+     * @return true si es un signo de puntuación ASCII.
+     */
+    private static boolean isPunctuation(char c) {
+        return (c >= '!' && c <= '/') || (c >= ':' && c <= '@') || (c >= '[' && c <= '`') || (c >= '{' && c <= '~');
+    }
+
+    /**
+     * Indica si un carácter es una marca combinante (acento, tilde, diéresis...), los mismos que {@code \p{M}}.
+     *
+     * @param c El carácter.
+     * @return true si es una marca combinante.
+     */
+    private static boolean isMark(char c) {
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK;
     }
 }
@@ -4,14 +4,23 @@ import java.util.ArrayList;
 /**
  * Clase para almacenar detalles de una ocurrencia de una palabra en un documento.
  * Incluye el nombre del documento, la palabra original y la posición de la palabra en el documento.
+ *
+ * <p>El árbol no guarda objetos Occurrence: las ocurrencias se guardan de forma compacta en la
+ * {@link DocumentTable} y cada Occurrence se crea al devolver resultados, como una vista de una palabra
+ * de un documento. Las ocurrencias creadas con el constructor público son sueltas: solo sirven para
+ * pasar los datos de una palabra a {@link AVLTree#insert} y no tienen anterior ni siguiente.
  */
 public class Occurrence {
-    private String documentName; // Nombre del documento donde se encontró la palabra.
-    private String originalWord; // Forma original de la palabra, con su capitalización y puntuación originales.
-    private int position; // Posición de la palabra en el documento.
-    private ArrayList<Integer> lineposition; // (linea, posición de la palabra en la línea)
-    private Occurrence previous;
-    private Occurrence next;
+    private final DocumentTable documents; // Tabla de donde proviene la ocurrencia; null si es suelta.
+    private final int document; // ID del documento en la tabla.
+    private final int ordinal; // Índice de la palabra dentro del documento.
+    private final String documentName; // Nombre del documento donde se encontró la palabra.
+    private final String originalWord; // Forma original de la palabra, con su capitalización y puntuación originales.
+    private final int position; // Posición de la palabra en el documento.
+    private final int line; // Número de línea en el documento.
+    private final int linePosition; // Posición de la palabra en la línea.
+    private final int page; // Página del documento, 0 si no tiene páginas.
+    private final int offset; // Índice del primer carácter de la palabra en el texto, -1 si no se conoce.
 
     /**
      * Constructor para crear una nueva ocurrencia.
@@ -23,12 +32,36 @@ public class Occurrence {
      * @param linePosition Posición de la palabra dentro de la línea.
      */
     public Occurrence(String documentName, String originalWord, int position, int line, int linePosition) {
+        this.documents = null;
+        this.document = -1;
+        this.ordinal = -1;
         this.documentName = documentName;
         this.originalWord = originalWord;
         this.position = position;
-        this.lineposition = new ArrayList<>();
-        this.lineposition.add(line);
-        this.lineposition.add(linePosition);
+        this.line = line;
+        this.linePosition = linePosition;
+        this.page = 0;
+        this.offset = -1;
+    }
+
+    /**
+     * Crea la vista de una palabra guardada en la tabla de documentos.
+     *
+     * @param documents La tabla de documentos.
+     * @param document  El ID del documento.
+     * @param ordinal   El índice de la palabra dentro del documento.
+     */
+    Occurrence(DocumentTable documents, int document, int ordinal) {
+        this.documents = documents;
+        this.document = document;
+        this.ordinal = ordinal;
+        this.documentName = documents.path(document);
+        this.originalWord = documents.originalWord(document, ordinal);
+        this.position = documents.position(document, ordinal);
+        this.line = documents.line(document, ordinal);
+        this.linePosition = documents.linePosition(document, ordinal);
+        this.page = documents.page(document, ordinal);
+        this.offset = documents.offset(document, ordinal);
     }
 
     /**
@@ -58,46 +91,86 @@ public class Occurrence {
 
     /**
      * Devuelve una lista de las posiciones de línea donde se encuentra la palabra.
-     * Cada entero en la lista representa una línea del documento donde aparece la palabra.
-     * @return una lista de posiciones de línea.
+     * El primer elemento es el número de línea y el segundo la posición de la palabra en esa línea.
+     * @return una lista nueva con (línea, posición en la línea).
      */
     public ArrayList<Integer> getLineposition() {
+        ArrayList<Integer> lineposition = new ArrayList<>(2);
+        lineposition.add(line);
+        lineposition.add(linePosition);
         return lineposition;
     }
 
     /**
-     * Devuelve la ocurrencia previa de la palabra en el documento.
-     * Esto puede ser útil para navegar hacia atrás a través de las ocurrencias de palabras.
-     * @return la ocurrencia previa.
+     * Devuelve el número de línea donde se encuentra la palabra.
+     * @return el número de línea.
      */
-    public Occurrence getPrevious() {
-        return previous;
+    public int getLine() {
+        return line;
     }
 
     /**
-     * Devuelve la próxima ocurrencia de la palabra en el documento.
-     * Esto facilita la navegación hacia adelante a través de las ocurrencias de palabras.
-     * @return la próxima ocurrencia.
+     * Devuelve la posición de la palabra dentro de su línea.
+     * @return la posición en la línea.
      */
-    public Occurrence getNext() {
-        return next;
+    public int getLinePosition() {
+        return linePosition;
     }
 
     /**
-     * Establece la ocurrencia previa de la palabra en el documento.
-     * Este método se usa para vincular esta ocurrencia con la que la precede.
-     * @param previous la ocurrencia previa a ser establecida.
+     * Devuelve la página del documento donde se encuentra la palabra (en los PDF).
+     * @return el número de página, empezando en 1, o 0 si el documento no tiene páginas.
      */
-    public void setPrevious(Occurrence previous) {
-        this.previous = previous;
+    public int getPage() {
+        return page;
     }
 
     /**
-     * Establece la próxima ocurrencia de la palabra en el documento.
-     * Este método se usa para vincular esta ocurrencia con la que la sigue.
-     * @param next la próxima ocurrencia a ser establecida.
+     * Devuelve el índice del primer carácter de la palabra en el texto del documento (en un PDF, en el texto de
+     * su página), para ubicarla en el visor sin volver a buscarla.
+     * @return el desplazamiento en caracteres, o -1 si no se conoce.
      */
-    public void setNext(Occurrence next) {
-        this.next = next;
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Devuelve el ID del documento en la tabla de documentos del árbol, o -1 si la ocurrencia es suelta.
+     * @return el ID del documento.
+     */
+    public int getDocumentId() {
+        return document;
+    }
+
+    /**
+     * Devuelve el índice de la palabra dentro de su documento, o -1 si la ocurrencia es suelta.
+     * @return el índice de la palabra.
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Devuelve la palabra anterior del documento.
+     * Esto puede ser útil para navegar hacia atrás a través de las palabras del texto.
+     * @return la ocurrencia previa, o null si es la primera de su secuencia o si la ocurrencia es suelta.
+     */
+    public Occurrence getPrevious() {
+        if (documents == null || !documents.isLinkedToPrevious(document, ordinal)) {
+            return null;
+        }
+        return new Occurrence(documents, document, ordinal - 1);
+    }
+
+    /**
+     * Devuelve la palabra siguiente del documento.
+     * Esto facilita la navegación hacia adelante a través de las palabras del texto.
+     * @return la próxima ocurrencia, o null si es la última de su secuencia o si la ocurrencia es suelta.
+     */
+    public Occurrence getNext() {
+        if (documents == null || !documents.isLinkedToPrevious(document, ordinal + 1)) {
+            return null;
+        }
+        return new Occurrence(documents, document, ordinal + 1);
     }
-}
\ No newline at end of file
+}
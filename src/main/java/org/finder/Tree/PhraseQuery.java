@@ -0,0 +1,174 @@
+package org.finder.Tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Evalúa frases intersectando las listas de ocurrencias de sus palabras.
+ * Cada ocurrencia de un nodo es un par (documento, índice de la palabra en el documento) y las listas están
+ * ordenadas por ese par, así que una frase de n palabras coincide en (d, k) cuando la palabra i tiene una
+ * ocurrencia en (d, k + i) para toda i.
+ *
+ * <p>La intersección empieza por la palabra con menos ocurrencias: sus ocurrencias, desplazadas a la posición
+ * de inicio de la frase, son los candidatos, y cada palabra siguiente (de menos a más frecuente) los filtra con
+ * una búsqueda galopante en su lista. El costo depende de la palabra más rara y no de la primera, y no se
+ * normaliza ninguna palabra de los documentos: solo se comparan enteros.
+ */
+public class PhraseQuery {
+    private final TermDictionary terms;
+    private final DocumentTable documents;
+
+    /**
+     * Crea el evaluador de frases de un árbol.
+     *
+     * @param terms El diccionario de palabras del árbol.
+     * @param documents La tabla de documentos del árbol.
+     */
+    public PhraseQuery(TermDictionary terms, DocumentTable documents) {
+        this.terms = terms;
+        this.documents = documents;
+    }
+
+    /**
+     * Busca todas las apariciones de una frase.
+     *
+     * @param words Las palabras normalizadas de la frase, en orden.
+     * @return La ocurrencia de la primera palabra de cada aparición, ordenadas por documento y posición.
+     */
+    public List<Occurrence> search(String[] words) {
+        long[] matches = matches(words);
+        List<Occurrence> occurrences = new ArrayList<>(matches.length);
+        for (long match : matches) {
+            occurrences.add(new Occurrence(documents, (int) (match >>> 32), (int) match));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Busca todas las apariciones de una frase sin crear ocurrencias.
+     *
+     * @param words Las palabras normalizadas de la frase, en orden.
+     * @return Cada aparición como {@code (documento << 32) | índice de la primera palabra}, en orden creciente.
+     */
+    public long[] matches(String[] words) {
+        int length = words.length;
+        TreeNode[] nodes = new TreeNode[length];
+        for (int i = 0; i < length; i++) {
+            nodes[i] = terms.node(words[i]);
+            if (nodes[i] == null) {
+                return new long[0]; // Una palabra que no está en el índice descarta la frase completa.
+            }
+        }
+        Integer[] order = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> nodes[i].getOccurrenceCount()));
+
+        // Candidatos: inicio de la frase según cada ocurrencia de la palabra más rara.
+        int rarest = order[0];
+        TreeNode first = nodes[rarest];
+        int count = 0;
+        int[] candidateDocuments = new int[first.getOccurrenceCount()];
+        int[] candidateStarts = new int[first.getOccurrenceCount()];
+        for (int i = 0; i < first.getOccurrenceCount(); i++) {
+            int start = first.getPostingOrdinal(i) - rarest;
+            if (start >= 0) {
+                candidateDocuments[count] = first.getPostingDocument(i);
+                candidateStarts[count] = start;
+                count++;
+            }
+        }
+
+        // Cada palabra restante conserva solo los candidatos donde aparece en su desplazamiento.
+        for (int k = 1; k < length && count > 0; k++) {
+            int offset = order[k];
+            TreeNode node = nodes[offset];
+            int cursor = 0;
+            int kept = 0;
+            for (int c = 0; c < count; c++) {
+                int document = candidateDocuments[c];
+                int ordinal = candidateStarts[c] + offset;
+                cursor = seek(node, cursor, document, ordinal);
+                if (cursor == node.getOccurrenceCount()) {
+                    break; // Ningún candidato restante puede aparecer en la lista.
+                }
+                if (node.getPostingDocument(cursor) == document && node.getPostingOrdinal(cursor) == ordinal) {
+                    candidateDocuments[kept] = document;
+                    candidateStarts[kept] = candidateStarts[c];
+                    kept++;
+                }
+            }
+            count = kept;
+        }
+
+        // Las palabras de la frase deben ser consecutivas en el texto (no, por ejemplo, en páginas distintas de un PDF).
+        long[] matches = new long[count];
+        int found = 0;
+        for (int c = 0; c < count; c++) {
+            if (isContiguous(candidateDocuments[c], candidateStarts[c], length)) {
+                matches[found++] = ((long) candidateDocuments[c] << 32) | candidateStarts[c];
+            }
+        }
+        return found == count ? matches : Arrays.copyOf(matches, found);
+    }
+
+    /**
+     * Indica si las palabras del rango están enlazadas entre sí, igual que al recorrerlas con {@link Occurrence#getNext()}.
+     *
+     * @param document El ID del documento.
+     * @param start El índice de la primera palabra.
+     * @param length La cantidad de palabras.
+     * @return true si cada palabra sigue inmediatamente a la anterior.
+     */
+    private boolean isContiguous(int document, int start, int length) {
+        for (int i = 1; i < length; i++) {
+            if (!documents.isLinkedToPrevious(document, start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Busca en las ocurrencias de un nodo, a partir de un índice, la primera que no es menor que (documento, índice).
+     * Avanza con saltos que se duplican y luego hace una búsqueda binaria en el último salto, así recorrer una
+     * lista larga con pocos candidatos cuesta proporcional a los candidatos y no al largo de la lista.
+     *
+     * @param node El nodo cuyas ocurrencias se recorren.
+     * @param from El índice desde donde buscar.
+     * @param document El ID del documento buscado.
+     * @param ordinal El índice de la palabra buscada en el documento.
+     * @return El índice de la primera ocurrencia mayor o igual, o la cantidad de ocurrencias si no hay ninguna.
+     */
+    private static int seek(TreeNode node, int from, int document, int ordinal) {
+        int size = node.getOccurrenceCount();
+        if (from >= size || !isBefore(node, from, document, ordinal)) {
+            return from;
+        }
+        // Invariante: la ocurrencia en low es menor que el objetivo.
+        int low = from;
+        int step = 1;
+        while (low + step < size && isBefore(node, low + step, document, ordinal)) {
+            low += step;
+            step <<= 1;
+        }
+        int high = Math.min(low + step, size);
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (isBefore(node, mid, document, ordinal)) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+
+    private static boolean isBefore(TreeNode node, int index, int document, int ordinal) {
+        int postingDocument = node.getPostingDocument(index);
+        return postingDocument < document || (postingDocument == document && node.getPostingOrdinal(index) < ordinal);
+    }
+}
@@ -0,0 +1,111 @@
+package org.finder.Tree;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Diccionario de palabras normalizadas del índice. Asigna a cada palabra un ID entero denso (0, 1, 2, ...)
+ * y permite encontrar su nodo del árbol AVL con una búsqueda por hash, sin descender el árbol comparando cadenas.
+ * El árbol AVL sigue siendo la estructura ordenada que se usa para recorrer las palabras en orden alfabético.
+ *
+ * <p>Los IDs son estables durante toda la vida del árbol: si una palabra se queda sin ocurrencias su nodo se
+ * elimina del árbol pero conserva el ID, y lo vuelve a usar si la palabra aparece de nuevo.
+ */
+public class TermDictionary {
+    private final Map<String, Integer> ids = new HashMap<>(); // ID de cada palabra.
+    private String[] words = new String[64]; // Palabra de cada ID.
+    private TreeNode[] nodes = new TreeNode[64]; // Nodo del árbol de cada ID, o null si la palabra no tiene ocurrencias.
+    private int size;
+
+    /**
+     * Devuelve el ID de una palabra, asignándole uno nuevo si todavía no lo tiene.
+     *
+     * @param word La palabra normalizada.
+     * @return El ID de la palabra.
+     */
+    public int intern(String word) {
+        Integer id = ids.get(word);
+        if (id != null) {
+            return id;
+        }
+        if (size == words.length) {
+            words = Arrays.copyOf(words, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        words[size] = word;
+        ids.put(word, size);
+        return size++;
+    }
+
+    /**
+     * Devuelve el ID de una palabra.
+     *
+     * @param word La palabra normalizada.
+     * @return El ID de la palabra, o -1 si nunca se agregó.
+     */
+    public int idOf(String word) {
+        Integer id = ids.get(word);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Devuelve la palabra de un ID. Es la misma instancia que guarda el nodo, así no se duplican cadenas.
+     *
+     * @param id El ID de la palabra.
+     * @return La palabra normalizada.
+     */
+    public String word(int id) {
+        return words[id];
+    }
+
+    /**
+     * Devuelve el nodo del árbol de una palabra.
+     *
+     * @param id El ID de la palabra.
+     * @return El nodo, o null si la palabra no tiene ocurrencias en el árbol.
+     */
+    public TreeNode node(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * Busca el nodo de una palabra normalizada por hash.
+     *
+     * @param word La palabra normalizada.
+     * @return El nodo, o null si la palabra no está en el árbol.
+     */
+    public TreeNode node(String word) {
+        Integer id = ids.get(word);
+        return id == null ? null : nodes[id];
+    }
+
+    /**
+     * Asocia un nodo del árbol a un ID (o lo desasocia con null cuando el nodo se elimina).
+     *
+     * @param id El ID de la palabra.
+     * @param node El nodo de la palabra.
+     */
+    void setNode(int id, TreeNode node) {
+        nodes[id] = node;
+    }
+
+    /**
+     * Devuelve la cantidad de IDs asignados.
+     *
+     * @return El siguiente ID que se asignará.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Quita todas las palabras del diccionario.
+     */
+    public void clear() {
+        ids.clear();
+        Arrays.fill(words, 0, size, null);
+        Arrays.fill(nodes, 0, size, null);
+        size = 0;
+    }
+}
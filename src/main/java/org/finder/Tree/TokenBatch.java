@@ -0,0 +1,160 @@
+package org.finder.Tree;
+
+/**
+ * Un bloque de palabras consecutivas de un documento, tal como lo producen los lectores de archivos:
+ * cada palabra con su forma original, su forma normalizada, su posición en el documento, su línea, su
+ * desplazamiento en caracteres y su página.
+ * Los lectores llenan los bloques en sus propios hilos y el árbol los inserta con {@link AVLTree#insert(String, TokenBatch)},
+ * sin crear una {@link Occurrence} por palabra.
+ */
+public final class TokenBatch {
+    /**
+     * Cantidad de palabras de un bloque lleno.
+     */
+    public static final int CAPACITY = 4096;
+
+    /**
+     * Bloque vacío que marca el final de un documento en una cola de bloques.
+     */
+    public static final TokenBatch END = new TokenBatch(0);
+
+    private final String[] originalWords;
+    private final String[] words;
+    private final int[] positions;
+    private final int[] lines;
+    private final int[] linePositions;
+    private final int[] offsets;
+    private final int[] pages;
+    private int size = 0;
+
+    /**
+     * Crea un bloque vacío con capacidad para {@link #CAPACITY} palabras.
+     */
+    public TokenBatch() {
+        this(CAPACITY);
+    }
+
+    private TokenBatch(int capacity) {
+        originalWords = new String[capacity];
+        words = new String[capacity];
+        positions = new int[capacity];
+        lines = new int[capacity];
+        linePositions = new int[capacity];
+        offsets = new int[capacity];
+        pages = new int[capacity];
+    }
+
+    /**
+     * Agrega una palabra al final del bloque.
+     *
+     * @param originalWord La palabra tal como aparece en el documento.
+     * @param word La palabra normalizada.
+     * @param position La posición de la palabra en el documento, empezando en 1.
+     * @param line El número de línea.
+     * @param linePosition La posición de la palabra dentro de la línea.
+     * @param offset El desplazamiento en caracteres de la palabra en el texto del documento (o de su página).
+     * @param page El número de página, empezando en 1, o 0 si el documento no tiene páginas.
+     * @throws IllegalStateException Si el bloque está lleno.
+     */
+    public void add(String originalWord, String word, int position, int line, int linePosition, int offset, int page) {
+        if (isFull()) {
+            throw new IllegalStateException("El bloque de palabras está lleno");
+        }
+        originalWords[size] = originalWord;
+        words[size] = word;
+        positions[size] = position;
+        lines[size] = line;
+        linePositions[size] = linePosition;
+        offsets[size] = offset;
+        pages[size] = page;
+        size++;
+    }
+
+    /**
+     * Indica si el bloque ya no admite más palabras.
+     *
+     * @return true si está lleno.
+     */
+    public boolean isFull() {
+        return size == words.length;
+    }
+
+    /**
+     * Devuelve la cantidad de palabras del bloque.
+     *
+     * @return La cantidad de palabras.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Devuelve la forma original de una palabra del bloque.
+     *
+     * @param i El índice de la palabra en el bloque.
+     * @return La palabra tal como aparece en el documento.
+     */
+    public String originalWord(int i) {
+        return originalWords[i];
+    }
+
+    /**
+     * Devuelve la forma normalizada de una palabra del bloque.
+     *
+     * @param i El índice de la palabra en el bloque.
+     * @return La palabra normalizada.
+     */
+    public String word(int i) {
+        return words[i];
+    }
+
+    /**
+     * Devuelve la posición en el documento de una palabra del bloque.
+     *
+     * @param i El índice de la palabra en el bloque.
+     * @return La posición, empezando en 1.
+     */
+    public int position(int i) {
+        return positions[i];
+    }
+
+    /**
+     * Devuelve el número de línea de una palabra del bloque.
+     *
+     * @param i El índice de la palabra en el bloque.
+     * @return El número de línea.
+     */
+    public int line(int i) {
+        return lines[i];
+    }
+
+    /**
+     * Devuelve la posición dentro de su línea de una palabra del bloque.
+     *
+     * @param i El índice de la palabra en el bloque.
+     * @return La posición en la línea.
+     */
+    public int linePosition(int i) {
+        return linePositions[i];
+    }
+
+    /**
+     * Devuelve el desplazamiento en caracteres de una palabra del bloque.
+     *
+     * @param i El índice de la palabra en el bloque.
+     * @return El índice de su primer carácter en el texto del documento, o de su página.
+     */
+    public int offset(int i) {
+        return offsets[i];
+    }
+
+    /**
+     * Devuelve el número de página de una palabra del bloque.
+     *
+     * @param i El índice de la palabra en el bloque.
+     * @return El número de página, o 0 si el documento no tiene páginas.
+     */
+    public int page(int i) {
+        return pages[i];
+    }
+}
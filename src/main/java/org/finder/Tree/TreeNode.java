@@ -1,14 +1,28 @@
 package org.finder.Tree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 /**
  * Representa un nodo dentro de un árbol AVL que almacena palabras normalizadas y sus ocurrencias en documentos.
- * Cada nodo mantiene una lista de ocurrencias de la palabra, junto con información sobre su posición y el documento original.
+ * Las ocurrencias se guardan de forma compacta como pares (documento, índice de la palabra en el documento)
+ * en dos arreglos de enteros; los detalles de cada ocurrencia (palabra original, posición, línea) están en la
+ * {@link DocumentTable} del árbol. Los pares quedan ordenados por documento y luego por índice.
  */
 public class TreeNode {
+    /**
+     * Cantidad de ocurrencias por bloque en los saltos de {@link #advancePosting}.
+     */
+    public static final int SKIP_INTERVAL = 64;
+
     private String word; // Palabra normalizada(toda minusculas y sin ningun signo). Cuando se quiera reconstruir el texto se debe usar el originalWord en ocurrences
-    private List<Occurrence> occurrences;// Lista de ocurrencias de la palabra en diversos documentos.
+    private final int termId; // ID de la palabra en el diccionario del árbol.
+    private final DocumentTable documents; // Tabla de documentos del árbol al que pertenece el nodo.
+    private int[] postingDocuments; // ID del documento de cada ocurrencia.
+    private int[] postingOrdinals; // Índice de la palabra dentro del documento de cada ocurrencia.
+    private int postingCount; // Cantidad de ocurrencias de la palabra en diversos documentos.
+    private int documentCount; // Cantidad de documentos distintos que contienen la palabra (frecuencia de documento).
+    private volatile int[] skipDocuments; // Documento de la primera ocurrencia de cada bloque; null si cambiaron las ocurrencias.
     private int height;// Altura del nodo dentro del árbol AVL, usado para mantener el árbol balanceado.
     private TreeNode left;
     private TreeNode right;
@@ -18,10 +32,16 @@ public class TreeNode {
      * Inicializa la lista de ocurrencias y configura la altura inicial del nodo a 1.
      *
      * @param word La palabra normalizada que se almacenará en este nodo.
+     * @param termId El ID de la palabra en el diccionario del árbol.
+     * @param documents La tabla de documentos del árbol, donde están los detalles de las ocurrencias.
      */
-    public TreeNode(String word) {
+    public TreeNode(String word, int termId, DocumentTable documents) {
         this.word = word;
-        this.occurrences = new ArrayList<>();
+        this.termId = termId;
+        this.documents = documents;
+        this.postingDocuments = new int[2];
+        this.postingOrdinals = new int[2];
+        this.postingCount = 0;
         this.height = 1;
         this.left = null;
         this.right = null;
@@ -34,9 +54,9 @@ public class TreeNode {
      * @return La ocurrencia que coincide exactamente con la palabra original, si se encuentra; de lo contrario, retorna null.
      */
     public Occurrence findExactOccurrence(String originalWord) {
-        for (Occurrence occurrence : this.occurrences) {
-            if (occurrence.getOriginalWord().equals(originalWord)) {
-                return occurrence;  // Devuelve la ocurrencia que coincide exactamente con la palabra original ingresada.
+        for (int i = 0; i < postingCount; i++) {
+            if (documents.originalWord(postingDocuments[i], postingOrdinals[i]).equals(originalWord)) {
+                return new Occurrence(documents, postingDocuments[i], postingOrdinals[i]);  // Devuelve la ocurrencia que coincide exactamente con la palabra original ingresada.
             }
         }
         return null;  // No se encontró una ocurrencia exacta.
@@ -53,20 +73,193 @@ public class TreeNode {
     }
 
     /**
-     * Añade una nueva ocurrencia a la lista de ocurrencias del nodo.
-     * @param occurrence la ocurrencia a añadir.
+     * Devuelve el ID de la palabra en el diccionario del árbol.
+     *
+     * @return el ID de la palabra.
+     */
+    public int getTermId() {
+        return termId;
+    }
+
+    /**
+     * Añade una nueva ocurrencia al final de las ocurrencias del nodo.
+     * @param document el ID del documento de la ocurrencia.
+     * @param ordinal el índice de la palabra dentro del documento.
+     */
+    public void addPosting(int document, int ordinal) {
+        if (postingCount == postingDocuments.length) {
+            int grown = postingCount + (postingCount >> 1) + 1;
+            postingDocuments = Arrays.copyOf(postingDocuments, grown);
+            postingOrdinals = Arrays.copyOf(postingOrdinals, grown);
+        }
+        if (postingCount == 0 || postingDocuments[postingCount - 1] != document) {
+            documentCount++; // Las ocurrencias de un documento se agregan juntas.
+        }
+        postingDocuments[postingCount] = document;
+        postingOrdinals[postingCount] = ordinal;
+        postingCount++;
+        skipDocuments = null;
+    }
+
+    /**
+     * Reemplaza las ocurrencias del nodo por las dadas (por ejemplo, al cargar una instantánea).
+     * Los arreglos pasan a ser propiedad del nodo.
+     * @param documents el ID del documento de cada ocurrencia.
+     * @param ordinals el índice de la palabra dentro del documento de cada ocurrencia.
+     */
+    public void setPostings(int[] documents, int[] ordinals) {
+        this.postingDocuments = documents;
+        this.postingOrdinals = ordinals;
+        this.postingCount = documents.length;
+        this.documentCount = 0;
+        for (int i = 0; i < postingCount; i++) {
+            if (i == 0 || documents[i - 1] != documents[i]) {
+                documentCount++;
+            }
+        }
+        this.skipDocuments = null;
+    }
+
+    /**
+     * Quita todas las ocurrencias que pertenecen a un documento.
+     * @param document el ID del documento cuyas ocurrencias se quitan.
+     * @return la cantidad de ocurrencias quitadas.
+     */
+    public int removePostingsOf(int document) {
+        int kept = 0;
+        for (int i = 0; i < postingCount; i++) {
+            if (postingDocuments[i] != document) {
+                postingDocuments[kept] = postingDocuments[i];
+                postingOrdinals[kept] = postingOrdinals[i];
+                kept++;
+            }
+        }
+        int removed = postingCount - kept;
+        postingCount = kept;
+        if (removed > 0) {
+            documentCount--;
+        }
+        skipDocuments = null;
+        return removed;
+    }
+
+    /**
+     * Traduce los IDs de documento de las ocurrencias después de compactar la tabla de documentos.
+     * La traducción conserva el orden de los documentos, así que las ocurrencias siguen ordenadas.
+     *
+     * @param documentMap El ID nuevo de cada ID anterior, como lo devuelve {@link DocumentTable#compact}.
+     */
+    void renumberDocuments(int[] documentMap) {
+        for (int i = 0; i < postingCount; i++) {
+            postingDocuments[i] = documentMap[postingDocuments[i]];
+        }
+        skipDocuments = null;
+    }
+
+    /**
+     * Busca, a partir de un índice, la primera ocurrencia cuyo documento es mayor o igual al dado.
+     * Las ocurrencias se agrupan en bloques de {@link #SKIP_INTERVAL} y se guarda el documento con que empieza
+     * cada bloque, así se saltan bloques completos sin compararlos uno por uno. Sirve para intersectar la lista
+     * de una palabra muy común con la de una palabra rara.
+     * @param from el índice desde donde buscar.
+     * @param document el ID del documento buscado.
+     * @return el índice de la primera ocurrencia encontrada, o la cantidad de ocurrencias si no hay ninguna.
+     */
+    public int advancePosting(int from, int document) {
+        if (from >= postingCount || postingDocuments[from] >= document) {
+            return from;
+        }
+        int[] skips = skipDocuments;
+        if (skips == null) {
+            skips = new int[(postingCount + SKIP_INTERVAL - 1) / SKIP_INTERVAL];
+            for (int block = 0; block < skips.length; block++) {
+                skips[block] = postingDocuments[block * SKIP_INTERVAL];
+            }
+            skipDocuments = skips;
+        }
+        int block = from / SKIP_INTERVAL;
+        while (block + 1 < skips.length && skips[block + 1] < document) {
+            block++;
+        }
+        int index = Math.max(from, block * SKIP_INTERVAL);
+        while (index < postingCount && postingDocuments[index] < document) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Devuelve la cantidad de documentos distintos que contienen la palabra.
+     * Se mantiene al agregar y quitar ocurrencias, así la puntuación de relevancia no recorre la lista.
+     * @return la frecuencia de documento de la palabra.
+     */
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Devuelve la cantidad de ocurrencias del nodo sin copiar la lista.
+     * @return la cantidad de ocurrencias.
+     */
+    public int getOccurrenceCount() {
+        return postingCount;
+    }
+
+    /**
+     * Devuelve el ID del documento de una ocurrencia.
+     * @param index el índice de la ocurrencia en el nodo.
+     * @return el ID del documento.
+     */
+    public int getPostingDocument(int index) {
+        return postingDocuments[index];
+    }
+
+    /**
+     * Devuelve el índice de la palabra dentro de su documento para una ocurrencia.
+     * @param index el índice de la ocurrencia en el nodo.
+     * @return el índice de la palabra en el documento.
      */
-    public void addOccurrence(Occurrence occurrence) {
-        this.occurrences.add(occurrence);
+    public int getPostingOrdinal(int index) {
+        return postingOrdinals[index];
     }
 
     /**
-     * Devuelve una copia de la lista de ocurrencias del nodo.
-     * Esto evita que la lista original sea modificada externamente.
-     * @return una copia de la lista de ocurrencias.
+     * Devuelve la tabla de documentos donde están los detalles de las ocurrencias.
+     * @return la tabla de documentos.
+     */
+    public DocumentTable getDocuments() {
+        return documents;
+    }
+
+    /**
+     * Devuelve una lista nueva con las ocurrencias del nodo.
+     * Cada ocurrencia se crea a partir de los arreglos compactos, por lo que modificar la lista no afecta al nodo.
+     * @return una lista de las ocurrencias.
      */
     public List<Occurrence> getOccurrences() {
-        return new ArrayList<>(this.occurrences);
+        List<Occurrence> occurrences = new ArrayList<>(postingCount);
+        for (int i = 0; i < postingCount; i++) {
+            occurrences.add(new Occurrence(documents, postingDocuments[i], postingOrdinals[i]));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Ajusta los arreglos de ocurrencias a su tamaño exacto, liberando la capacidad sobrante.
+     */
+    public void trimToSize() {
+        if (postingCount < postingDocuments.length) {
+            postingDocuments = Arrays.copyOf(postingDocuments, postingCount);
+            postingOrdinals = Arrays.copyOf(postingOrdinals, postingCount);
+        }
+    }
+
+    /**
+     * Estima los bytes que ocupa el nodo con sus arreglos de ocurrencias.
+     * @return la cantidad estimada de bytes.
+     */
+    long estimatedBytes() {
+        return 40 + 2 * (16 + 4L * postingDocuments.length);
     }
     /**
      * Establece la altura de este nodo.
@@ -0,0 +1,152 @@
+package org.finder.Tree;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evalúa búsquedas de una palabra con comodines: {@code casa*} (prefijo) o {@code des*ción} (el asterisco
+ * representa cualquier cantidad de letras). La parte anterior al primer asterisco es un prefijo que se busca
+ * como un rango del árbol, así que solo se visitan las palabras que empiezan con él; las demás partes se
+ * comprueban sobre esas palabras. Las ocurrencias de todas las palabras que coinciden se devuelven juntas,
+ * ordenadas por documento y posición, como si fueran una sola palabra.
+ *
+ * <p>Un prefijo muy corto puede coincidir con buena parte del diccionario, por eso la expansión se detiene
+ * al llegar a un máximo de palabras distintas (ver {@link #MAX_EXPANSIONS_PROPERTY}).
+ */
+public class WildcardQuery {
+    private static final Logger logger = LogManager.getLogger(WildcardQuery.class);
+
+    /**
+     * Propiedad del sistema con la cantidad máxima de palabras distintas a las que se expande un comodín
+     * (por ejemplo {@code -Dtextfinder.search.maxExpansions=512}).
+     */
+    public static final String MAX_EXPANSIONS_PROPERTY = "textfinder.search.maxExpansions";
+
+    /**
+     * Carácter que representa cualquier cantidad de letras.
+     */
+    public static final char WILDCARD = '*';
+
+    private final AVLTree tree;
+    private final int maxExpansions;
+
+    /**
+     * Crea el evaluador de comodines de un árbol.
+     *
+     * @param tree El árbol donde se buscan las palabras.
+     * @param maxExpansions La cantidad máxima de palabras distintas a las que se expande el comodín.
+     */
+    public WildcardQuery(AVLTree tree, int maxExpansions) {
+        this.tree = tree;
+        this.maxExpansions = Math.max(1, maxExpansions);
+    }
+
+    /**
+     * Devuelve el máximo configurado mediante {@link #MAX_EXPANSIONS_PROPERTY}, o 512 si no está definido.
+     *
+     * @return La cantidad máxima de palabras por comodín.
+     */
+    public static int configuredMaxExpansions() {
+        return Math.max(1, Integer.getInteger(MAX_EXPANSIONS_PROPERTY, 512));
+    }
+
+    /**
+     * Indica si el texto de una búsqueda es una palabra con comodines.
+     *
+     * @param input El texto de la búsqueda, sin normalizar.
+     * @return true si es una sola palabra y contiene al menos un asterisco.
+     */
+    public static boolean isWildcard(String input) {
+        String trimmed = input.trim();
+        return trimmed.indexOf(WILDCARD) >= 0 && trimmed.split("\\s+").length == 1;
+    }
+
+    /**
+     * Devuelve los nodos de las palabras que coinciden con el patrón, en orden alfabético.
+     *
+     * @param pattern La palabra con comodines, sin normalizar.
+     * @return Los nodos que coinciden, como máximo la cantidad de expansiones configurada.
+     */
+    public List<TreeNode> expand(String pattern) {
+        String[] parts = pattern.trim().split("\\*", -1);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = Normalizer.normalizeWord(parts[i]);
+        }
+        List<TreeNode> matches = new ArrayList<>();
+        boolean[] truncated = {false};
+        tree.forEachWithPrefix(parts[0], node -> {
+            if (!matches(node.getWord(), parts)) {
+                return true;
+            }
+            if (matches.size() == maxExpansions) {
+                truncated[0] = true;
+                return false;
+            }
+            matches.add(node);
+            return true;
+        });
+        if (truncated[0]) {
+            logger.warn("El comodín " + pattern + " coincide con más de " + maxExpansions
+                    + " palabras; solo se usan las primeras en orden alfabético");
+        }
+        return matches;
+    }
+
+    /**
+     * Busca todas las ocurrencias de las palabras que coinciden con el patrón.
+     *
+     * @param pattern La palabra con comodines, sin normalizar.
+     * @return Las ocurrencias de todas las palabras que coinciden, ordenadas por documento y posición.
+     */
+    public List<Occurrence> search(String pattern) {
+        List<TreeNode> nodes = expand(pattern);
+        int total = 0;
+        for (TreeNode node : nodes) {
+            total += node.getOccurrenceCount();
+        }
+        // Cada ocurrencia como (documento, índice) en un long, así ordenar las claves intercala las listas.
+        long[] keys = new long[total];
+        int count = 0;
+        for (TreeNode node : nodes) {
+            for (int i = 0; i < node.getOccurrenceCount(); i++) {
+                keys[count++] = ((long) node.getPostingDocument(i) << 32) | node.getPostingOrdinal(i);
+            }
+        }
+        Arrays.sort(keys);
+        DocumentTable documents = tree.getDocuments();
+        List<Occurrence> occurrences = new ArrayList<>(total);
+        for (long key : keys) {
+            occurrences.add(new Occurrence(documents, (int) (key >>> 32), (int) key));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Comprueba una palabra contra las partes del patrón separadas por los asteriscos: la palabra debe empezar
+     * con la primera parte, terminar con la última y contener las intermedias en orden sin superponerse.
+     *
+     * @param word La palabra normalizada.
+     * @param parts Las partes normalizadas del patrón; hay al menos dos.
+     * @return true si la palabra coincide con el patrón.
+     */
+    private static boolean matches(String word, String[] parts) {
+        String last = parts[parts.length - 1];
+        if (!word.startsWith(parts[0]) || word.length() < parts[0].length() + last.length() || !word.endsWith(last)) {
+            return false;
+        }
+        int from = parts[0].length();
+        int end = word.length() - last.length();
+        for (int i = 1; i < parts.length - 1; i++) {
+            int found = word.indexOf(parts[i], from);
+            if (found < 0 || found + parts[i].length() > end) {
+                return false;
+            }
+            from = found + parts[i].length();
+        }
+        return true;
+    }
+}
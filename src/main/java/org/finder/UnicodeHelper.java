@@ -8,13 +8,22 @@ import java.util.regex.Pattern;
  * en contextos donde se requiere el procesamiento de Unicode.
  */
 public class UnicodeHelper {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+"); // Marcas combinantes (acentos) tras la descomposición NFD.
+
+    /**
+     * Quita los acentos y demás diacríticos de un texto completo. Las palabras del índice y de las búsquedas
+     * ya se normalizan sin acentos en {@link org.finder.Tree.Normalizer}; este método queda para textos que no
+     * pasan por el índice.
+     *
+     * @param text El texto.
+     * @return El texto sin diacríticos, o null si el texto es null.
+     */
     public static String removeAccents(String text) {
         if (text == null) {
             return null;
         }
         String nfdNormalizedString = Normalizer.normalize(text, Normalizer.Form.NFD);
-        Pattern pattern = Pattern.compile("\\p{M}+");
-        return pattern.matcher(nfdNormalizedString).replaceAll("");
+        return MARKS.matcher(nfdNormalizedString).replaceAll("");
     }
 
     /**
@@ -34,7 +34,7 @@ public class biblioteca {
         try {
             fileTime = Files.getLastModifiedTime(Path.of(file.getAbsolutePath()));
             this.size += 1;
-            this.array.add(new Result(file.getName(), file.getAbsolutePath(), (int)file.length(), fileTime, textSnippet, creationDate, linePosition));
+            this.array.add(new Result(file.getName(), file.getAbsolutePath(), file.length(), fileTime, textSnippet, creationDate, linePosition));
         } catch (IOException e) {
             logger.error(e);
         }